@@ -0,0 +1,73 @@
+package com.global.aod.interview.techtest.benchmark;
+
+import com.global.aod.interview.techtest.mapper.StringToFieldsMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortDirectionMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
+import com.global.aod.interview.techtest.model.Fields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers the query parameter converters, both with the values of well behaving clients and with garbage, which
+ * used to take an exception driven fallback path. Valid input is expected to allocate nothing, see gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertersBenchmark {
+
+    private final StringToFieldsMapper fieldsMapper = new StringToFieldsMapper();
+    private final StringToSortDirectionMapper directionMapper = new StringToSortDirectionMapper();
+    private final StringToSortMapper sortMapper = new StringToSortMapper();
+
+    // Not constants, so the JIT can't fold the conversions away
+    private String validField = "nAMe";
+    private String invalidField = "popularity";
+    private String validDirection = "desc";
+    private String invalidDirection = "sideways";
+    private String validSort = "name,-id";
+    private String invalidSort = "popularity,-rank";
+
+    @Benchmark
+    public Fields fieldsValid() {
+        return fieldsMapper.convert(validField);
+    }
+
+    @Benchmark
+    public Fields fieldsInvalid() {
+        return fieldsMapper.convert(invalidField);
+    }
+
+    @Benchmark
+    public Sort.Direction directionValid() {
+        return directionMapper.convert(validDirection);
+    }
+
+    @Benchmark
+    public Sort.Direction directionInvalid() {
+        return directionMapper.convert(invalidDirection);
+    }
+
+    @Benchmark
+    public Sort sortValid() {
+        return sortMapper.convert(validSort);
+    }
+
+    @Benchmark
+    public Sort sortInvalid() {
+        return sortMapper.convert(invalidSort);
+    }
+}
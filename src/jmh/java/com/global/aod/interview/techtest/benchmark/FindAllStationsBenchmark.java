@@ -0,0 +1,82 @@
+package com.global.aod.interview.techtest.benchmark;
+
+import com.global.aod.interview.techtest.TechTestApplication;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.service.StationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Runs {@code StationServiceImpl.findAllStations} against an in-memory H2 database with a growing number of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FindAllStationsBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private StationService stationService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TechTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("jmh")
+                .run();
+        stationService = context.getBean(StationService.class);
+
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM station");
+        for (long first = 1; first <= rows; first += INSERT_BATCH_SIZE) {
+            var ids = LongStream.range(first, Math.min(first + INSERT_BATCH_SIZE, rows + 1L)).boxed().toList();
+            jdbcTemplate.batchUpdate("INSERT INTO station (id, name, version) VALUES (?, ?, 0)", ids, ids.size(),
+                    (statement, id) -> {
+                        statement.setLong(1, id);
+                        statement.setString(2, "Station " + id);
+                    });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Station> findAllOrderedById() {
+        return stationService.findAllStations(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    @Benchmark
+    public List<Station> findAllOrderedByName() {
+        return stationService.findAllStations(Sort.by(Sort.Direction.DESC, "name"));
+    }
+}
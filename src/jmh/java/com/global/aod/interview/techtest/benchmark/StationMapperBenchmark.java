@@ -0,0 +1,39 @@
+package com.global.aod.interview.techtest.benchmark;
+
+import com.global.aod.interview.techtest.mapper.StationMapper;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StationMapperBenchmark {
+
+    private final StationMapper mapper = StationMapper.INSTANCE;
+    private final StationEntity entity = new StationEntity(1L, "Heart UK", 3);
+    private final Station station = Station.builder().id(1L).stationName("Heart UK").version(3).build();
+
+    @Benchmark
+    public Station toDto() {
+        return mapper.toDto(entity);
+    }
+
+    @Benchmark
+    public StationEntity toEntity() {
+        return mapper.toEntity(station);
+    }
+}
@@ -0,0 +1,80 @@
+package com.global.aod.interview.techtest.sql;
+
+import com.global.aod.interview.techtest.model.Station;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Reads the stations of an in-memory H2 database with and without the {@link InstrumentedDataSource} in between, the
+ * price of {@code stations.sql.enabled}. The reads run inside the {@link StatementStatistics} of a request, like on the
+ * endpoints, so the result sets are wrapped as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentedDataSourceBenchmark {
+
+    private static final String SELECT = "SELECT id, name, version FROM station ORDER BY id";
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void createDatabase() {
+        var h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumented-" + rows + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(instrumented ? new InstrumentedDataSource(h2, Duration.ofSeconds(1)) : h2);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS station (id BIGINT PRIMARY KEY, name TEXT, version INT)");
+        jdbcTemplate.execute("DELETE FROM station");
+        var ids = LongStream.rangeClosed(1, rows).boxed().toList();
+        jdbcTemplate.batchUpdate("INSERT INTO station (id, name, version) VALUES (?, ?, 0)", ids, ids.size(),
+                (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setString(2, "Station " + id);
+                });
+    }
+
+    @Setup(Level.Invocation)
+    public void beginRequest() {
+        StatementStatistics.begin();
+    }
+
+    @TearDown(Level.Invocation)
+    public void endRequest() {
+        StatementStatistics.end();
+    }
+
+    @Benchmark
+    public List<Station> readAll() {
+        return jdbcTemplate.query(SELECT, (row, rowNum) -> new Station(
+                row.getLong("id"),
+                row.getString("name"),
+                row.getInt("version")));
+    }
+}
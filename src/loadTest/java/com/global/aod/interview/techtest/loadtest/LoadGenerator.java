@@ -0,0 +1,118 @@
+package com.global.aod.interview.techtest.loadtest;
+
+import com.global.aod.interview.techtest.loadtest.Workload.Operation;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Sends a workload with a fixed number of clients, every client on its own thread sends its next request once the
+ * previous one was answered. The warm-up runs the same workload first, so the JIT and the caches have settled before
+ * the latencies are recorded.
+ */
+class LoadGenerator {
+
+    private final List<StationsClient> clients;
+
+    LoadGenerator(List<StationsClient> clients) {
+        this.clients = clients;
+    }
+
+    LoadReport run(Workload workload, Duration warmUp, Duration duration) throws InterruptedException {
+        send(workload, warmUp);
+        var start = System.nanoTime();
+        var recorders = send(workload, duration);
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        var operations = new EnumMap<Operation, LoadReport.Stats>(Operation.class);
+        for (var operation : Operation.values()) {
+            var latencies = recorders.stream().flatMapToLong(recorder -> recorder.latencies(operation)).toArray();
+            if (latencies.length > 0) {
+                var errors = recorders.stream().mapToLong(recorder -> recorder.errors.getOrDefault(operation, 0L)).sum();
+                operations.put(operation, LoadReport.Stats.of(latencies, errors, elapsed));
+            }
+        }
+        var total = LoadReport.Stats.of(
+                recorders.stream().flatMapToLong(Recorder::latencies).toArray(),
+                recorders.stream().mapToLong(Recorder::errors).sum(),
+                elapsed);
+        return new LoadReport(workload.key(), clients.size(), elapsed, total, operations);
+    }
+
+    private List<Recorder> send(Workload workload, Duration duration) throws InterruptedException {
+        var recorders = clients.stream().map(client -> new Recorder()).toList();
+        var threads = Executors.newFixedThreadPool(clients.size());
+        var deadline = System.nanoTime() + duration.toNanos();
+
+        for (int i = 0; i < clients.size(); i++) {
+            var client = clients.get(i);
+            var recorder = recorders.get(i);
+            threads.execute(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    var operation = workload.next();
+                    var sent = System.nanoTime();
+                    boolean succeeded;
+                    try {
+                        succeeded = client.execute(operation);
+                    } catch (IOException e) {
+                        succeeded = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    recorder.record(operation, System.nanoTime() - sent, succeeded);
+                }
+            });
+        }
+        threads.shutdown();
+        if (!threads.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            threads.shutdownNow();
+            throw new IllegalStateException("Clients didn't stop in time, the application stopped answering");
+        }
+        return recorders;
+    }
+
+    /**
+     * The latencies of one client, only touched by its thread until the run is over.
+     */
+    private static final class Recorder {
+
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+        void record(Operation operation, long nanos, boolean succeeded) {
+            var count = counts.getOrDefault(operation, 0);
+            var recorded = latencies.computeIfAbsent(operation, o -> new long[1024]);
+            if (count == recorded.length) {
+                recorded = Arrays.copyOf(recorded, count * 2);
+                latencies.put(operation, recorded);
+            }
+            recorded[count] = nanos;
+            counts.put(operation, count + 1);
+            if (!succeeded) {
+                errors.merge(operation, 1L, Long::sum);
+            }
+        }
+
+        LongStream latencies(Operation operation) {
+            var recorded = latencies.get(operation);
+            return recorded == null ? LongStream.empty() : Arrays.stream(recorded, 0, counts.get(operation));
+        }
+
+        LongStream latencies() {
+            return Arrays.stream(Operation.values()).flatMapToLong(this::latencies);
+        }
+
+        long errors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
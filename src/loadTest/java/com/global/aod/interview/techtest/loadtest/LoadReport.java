@@ -0,0 +1,54 @@
+package com.global.aod.interview.techtest.loadtest;
+
+import com.global.aod.interview.techtest.loadtest.Workload.Operation;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The outcome of a run: throughput and latency percentiles of all the requests, and of every operation on its own.
+ */
+record LoadReport(String workload, int concurrency, Duration duration, Stats total, Map<Operation, Stats> operations) {
+
+    /**
+     * @param throughput requests per second
+     * @param p50        milliseconds, like the other percentiles
+     */
+    record Stats(long requests, long errors, double throughput, double p50, double p99, double p999, double max) {
+
+        static Stats of(long[] latencyNanos, long errors, Duration duration) {
+            var sorted = latencyNanos.clone();
+            Arrays.sort(sorted);
+            return new Stats(sorted.length, errors, sorted.length / (duration.toNanos() / 1_000_000_000.0),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    percentile(sorted, 1.0));
+        }
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+
+        // Nearest rank, the p999 of fewer than 1000 requests is their maximum
+        private static double percentile(long[] sortedNanos, double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            return sortedNanos[(int) Math.ceil(percentile * sortedNanos.length) - 1] / 1_000_000.0;
+        }
+    }
+
+    void print(PrintStream out) {
+        out.printf("%s: %d concurrent clients for %d s%n", workload, concurrency, duration.toSeconds());
+        out.printf("%-12s %10s %8s %10s %9s %9s %9s %9s%n", "operation", "requests", "errors", "req/sec", "p50 ms",
+                "p99 ms", "p999 ms", "max ms");
+        operations.forEach((operation, stats) -> print(out, operation.name(), stats));
+        print(out, "TOTAL", total);
+    }
+
+    private static void print(PrintStream out, String name, Stats stats) {
+        out.printf("%-12s %10d %8d %10.0f %9.1f %9.1f %9.1f %9.1f%n", name, stats.requests(), stats.errors(),
+                stats.throughput(), stats.p50(), stats.p99(), stats.p999(), stats.max());
+    }
+}
@@ -0,0 +1,89 @@
+package com.global.aod.interview.techtest.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * The settings of the load test, read from {@code loadtest.properties} and overridden by the {@code loadtest.*} system
+ * properties.
+ */
+record LoadTestSettings(Properties properties) {
+
+    private static final String PREFIX = "loadtest.";
+
+    static LoadTestSettings load() {
+        var properties = new Properties();
+        try (var defaults = LoadTestSettings.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(key -> key.startsWith(PREFIX))
+                .forEach(key -> properties.setProperty(key, System.getProperty(key)));
+        return new LoadTestSettings(properties);
+    }
+
+    String baseUrl() {
+        return string("base-url");
+    }
+
+    String[] profiles() {
+        var profiles = string("profiles");
+        return profiles == null ? new String[0] : profiles.split("\\s*,\\s*");
+    }
+
+    int concurrency() {
+        return Integer.parseInt(string("concurrency"));
+    }
+
+    int stations() {
+        return Integer.parseInt(string("stations"));
+    }
+
+    Duration warmUp() {
+        return DurationStyle.detectAndParse(string("warm-up"));
+    }
+
+    Duration duration() {
+        return DurationStyle.detectAndParse(string("duration"));
+    }
+
+    Path reportDir() {
+        var reportDir = string("report-dir");
+        return Path.of(reportDir == null ? "build/reports/loadtest" : reportDir);
+    }
+
+    /**
+     * @return the SLOs of the workload, {@code loadtest.slo.<workload>.*}
+     */
+    Slo slo(Workload workload) {
+        var prefix = "slo." + workload.key() + ".";
+        var minThroughput = string(prefix + "min-throughput");
+        var maxErrorRate = string(prefix + "max-error-rate");
+        return new Slo(
+                minThroughput == null ? null : Double.valueOf(minThroughput),
+                duration(prefix + "p50"),
+                duration(prefix + "p99"),
+                duration(prefix + "p999"),
+                maxErrorRate == null ? null : Double.valueOf(maxErrorRate));
+    }
+
+    private Duration duration(String key) {
+        var value = string(key);
+        return value == null ? null : DurationStyle.detectAndParse(value);
+    }
+
+    // Blank values count as missing, so a default can be switched off from the command line
+    private String string(String key) {
+        var value = properties.getProperty(PREFIX + key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,38 @@
+package com.global.aod.interview.techtest.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The service level objectives of a workload, {@code null} ones aren't checked.
+ *
+ * @param minThroughput requests per second
+ * @param maxErrorRate  ratio of the requests without the expected response, 0 to 1
+ */
+record Slo(Double minThroughput, Duration p50, Duration p99, Duration p999, Double maxErrorRate) {
+
+    /**
+     * @return a line for every objective the run missed, empty when all of them were met
+     */
+    List<String> violations(LoadReport.Stats stats) {
+        var violations = new ArrayList<String>();
+        if (minThroughput != null && stats.throughput() < minThroughput) {
+            violations.add(String.format("throughput %.0f requests/sec is below %.0f", stats.throughput(), minThroughput));
+        }
+        check(violations, "p50", stats.p50(), p50);
+        check(violations, "p99", stats.p99(), p99);
+        check(violations, "p999", stats.p999(), p999);
+        if (maxErrorRate != null && stats.errorRate() > maxErrorRate) {
+            violations.add(String.format("error rate %.4f is above %.4f (%d of %d requests)", stats.errorRate(),
+                    maxErrorRate, stats.errors(), stats.requests()));
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, String percentile, double actualMillis, Duration objective) {
+        if (objective != null && actualMillis > objective.toNanos() / 1_000_000.0) {
+            violations.add(String.format("%s %.1f ms is above %d ms", percentile, actualMillis, objective.toMillis()));
+        }
+    }
+}
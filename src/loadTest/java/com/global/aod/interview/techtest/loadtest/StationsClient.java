@@ -0,0 +1,110 @@
+package com.global.aod.interview.techtest.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.global.aod.interview.techtest.loadtest.Workload.Operation;
+import com.global.aod.interview.techtest.model.Station;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One client of the load test, used by a single thread. Every station is updated by one client only, which keeps
+ * track of its version, so the updates don't fail on optimistic locking unless something is wrong. Deletes remove the
+ * stations the client created before, the seeded stations stay for the reads.
+ */
+class StationsClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<Station> stations;
+    private final List<Station> ownStations;
+    private final Deque<Long> created = new ArrayDeque<>();
+    private int nextUpdate;
+
+    StationsClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, List<Station> stations,
+                   List<Station> ownStations) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.stations = stations;
+        this.ownStations = ownStations;
+    }
+
+    /**
+     * @return whether the operation got the expected response
+     */
+    boolean execute(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case FIND_BY_ID -> send(get("/stations/" + anyStation().id())).statusCode() == 200;
+            case FIND_ALL -> send(get("/stations").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).statusCode() == 200;
+            case SEARCH -> send(get("/stations/search?limit=10&q="
+                    + URLEncoder.encode(anyStation().stationName(), StandardCharsets.UTF_8))).statusCode() == 200;
+            case UPDATE -> update();
+            case CREATE -> create();
+            // Nothing to delete yet, the client creates one instead
+            case DELETE -> created.isEmpty() ? create() : delete(created.poll());
+        };
+    }
+
+    private boolean update() throws IOException, InterruptedException {
+        if (ownStations.isEmpty()) {
+            return create();
+        }
+
+        var index = nextUpdate++ % ownStations.size();
+        var station = ownStations.get(index);
+        var response = send(request("").PUT(body(new Station(station.id(), "Updated " + nextUpdate, station.version()))));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        ownStations.set(index, objectMapper.readValue(response.body(), Station.class));
+        return true;
+    }
+
+    private boolean create() throws IOException, InterruptedException {
+        var response = send(request("").POST(body(Station.builder().stationName("Created " + created.size()).build())));
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        created.add(objectMapper.readValue(response.body(), Station.class).id());
+        return true;
+    }
+
+    private boolean delete(Long id) throws IOException, InterruptedException {
+        return send(request("/" + id).DELETE()).statusCode() == 204;
+    }
+
+    private Station anyStation() {
+        return stations.get(ThreadLocalRandom.current().nextInt(stations.size()));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/stations" + path))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private HttpRequest.BodyPublisher body(Station station) throws JsonProcessingException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(station));
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,123 @@
+package com.global.aod.interview.techtest.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.global.aod.interview.techtest.TechTestApplication;
+import com.global.aod.interview.techtest.model.BatchItemResult;
+import com.global.aod.interview.techtest.model.Station;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends a read-heavy and a write-heavy mix of requests to the stations API, prints throughput and latency percentiles,
+ * and fails when the SLOs in {@code loadtest.properties} are missed. Start it with {@code gradle loadTest}, see the
+ * README for running it against Postgres. The reports are also written as JSON to {@code build/reports/loadtest}, to
+ * compare a change with the baseline.
+ */
+class StationsLoadTest {
+
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.load();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+    private static ConfigurableApplicationContext context;
+    private static String baseUrl;
+    private static HttpClient httpClient;
+
+    @BeforeAll
+    static void startApplication() {
+        baseUrl = SETTINGS.baseUrl();
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(TechTestApplication.class)
+                    .profiles(SETTINGS.profiles())
+                    .properties("server.port=0")
+                    .run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+        }
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Read-heavy workload - Mostly single stations, some lists, searches and updates")
+    void shouldMeetReadHeavySlo() throws Exception {
+        run(Workload.READ_HEAVY);
+    }
+
+    @Test
+    @DisplayName("Write-heavy workload - Mostly updates, creates and deletes")
+    void shouldMeetWriteHeavySlo() throws Exception {
+        run(Workload.WRITE_HEAVY);
+    }
+
+    private static void run(Workload workload) throws Exception {
+        var generator = new LoadGenerator(clients(seed(SETTINGS.stations())));
+        var report = generator.run(workload, SETTINGS.warmUp(), SETTINGS.duration());
+        report.print(System.out);
+
+        Files.createDirectories(SETTINGS.reportDir());
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+                .writeValue(SETTINGS.reportDir().resolve(workload.key() + ".json").toFile(), report);
+
+        assertThat(SETTINGS.slo(workload).violations(report.total()))
+                .as("SLO violations of the %s workload", workload.key())
+                .isEmpty();
+    }
+
+    // Every test seeds its own stations, the ones of the previous test were updated behind the clients' back
+    private static List<Station> seed(int count) throws Exception {
+        var stations = new ArrayList<Station>(count);
+        for (int from = 0; from < count; from += SEED_BATCH_SIZE) {
+            var batch = IntStream.range(from, Math.min(from + SEED_BATCH_SIZE, count))
+                    .mapToObj(i -> Station.builder().stationName("Station " + i).build())
+                    .toList();
+            var request = HttpRequest.newBuilder(URI.create(baseUrl + "/stations/batch"))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(batch)))
+                    .build();
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).as("Seeding the stations").isEqualTo(200);
+
+            OBJECT_MAPPER.readValue(response.body(), new TypeReference<List<BatchItemResult>>() {
+            }).forEach(result -> stations.add(result.station()));
+        }
+        return List.copyOf(stations);
+    }
+
+    private static List<StationsClient> clients(List<Station> stations) {
+        var concurrency = SETTINGS.concurrency();
+        return IntStream.range(0, concurrency)
+                .mapToObj(client -> new StationsClient(httpClient, OBJECT_MAPPER, baseUrl, stations,
+                        new ArrayList<>(IntStream.range(0, stations.size())
+                                .filter(i -> i % concurrency == client)
+                                .mapToObj(stations::get)
+                                .toList())))
+                .toList();
+    }
+}
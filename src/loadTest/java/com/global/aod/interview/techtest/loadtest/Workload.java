@@ -0,0 +1,51 @@
+package com.global.aod.interview.techtest.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A mix of operations, every request picks one of them at random by their weight.
+ */
+enum Workload {
+
+    READ_HEAVY("read-heavy", Map.of(
+            Operation.FIND_BY_ID, 70,
+            Operation.FIND_ALL, 10,
+            Operation.SEARCH, 10,
+            Operation.UPDATE, 10)),
+    WRITE_HEAVY("write-heavy", Map.of(
+            Operation.FIND_BY_ID, 20,
+            Operation.UPDATE, 50,
+            Operation.CREATE, 20,
+            Operation.DELETE, 10));
+
+    enum Operation {
+        FIND_BY_ID, FIND_ALL, SEARCH, UPDATE, CREATE, DELETE
+    }
+
+    private final String key;
+    private final Map<Operation, Integer> weights;
+    private final int totalWeight;
+
+    Workload(String key, Map<Operation, Integer> weights) {
+        this.key = key;
+        this.weights = new EnumMap<>(weights);
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    String key() {
+        return key;
+    }
+
+    Operation next() {
+        var draw = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (var weight : weights.entrySet()) {
+            draw -= weight.getValue();
+            if (draw < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights of " + key + " changed while drawing");
+    }
+}
@@ -14,12 +14,14 @@ import java.lang.annotation.Target;
 @Target({ElementType.METHOD})
 @Operation(
         summary = "Create a new Station resource",
-        description = "Creates a new Station resource",
+        description = "Creates a new Station resource. A retry with the same Idempotency-Key header is answered with the station created by the first request.",
         operationId = "createStation",
         tags = {"Stations"},
         responses = {
                 @ApiResponse(responseCode = "201", description = "Station resource successfully created.", content = {@Content(schema = @Schema())}),
-                @ApiResponse(responseCode = "400", description = "Invalid input, stationName is missing."),
+                @ApiResponse(responseCode = "400", description = "Invalid input, stationName is missing or the Idempotency-Key is blank or too long."),
+                @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used to create a different station", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "500", description = "The background service layer failed to create the resource", content = {@Content(schema = @Schema())})
         }
 )
@@ -0,0 +1,31 @@
+package com.global.aod.interview.techtest.annotations;
+
+import com.global.aod.interview.techtest.model.BatchItemResult;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+@Operation(
+        summary = "Create many new Station resources",
+        description = "Creates many new Station resources in one transaction and reports the outcome of every item",
+        operationId = "createStations",
+        tags = {"Stations"},
+        responses = {
+                @ApiResponse(responseCode = "200", description = "The batch has been processed, see the status of each item.",
+                        content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class)))}),
+                @ApiResponse(responseCode = "400", description = "Invalid input, the batch is missing or too large.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "500", description = "The background service layer failed to create the resources", content = {@Content(schema = @Schema())})
+        }
+)
+public @interface CreateStations {
+}
@@ -20,6 +20,7 @@ import java.lang.annotation.Target;
         responses = {
                 @ApiResponse(responseCode = "204", description = "The station is successfully deleted.", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "400", description = "The given Station identifier is not a number.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "404", description = "There is no station with the given identifier.", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "500", description = "The background service layer failed to create the resource", content = {@Content(schema = @Schema())})
         }
 )
@@ -0,0 +1,29 @@
+package com.global.aod.interview.techtest.annotations;
+
+import com.global.aod.interview.techtest.model.Station;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+@Operation(
+        summary = "Export all Stations",
+        description = "Streams every Station as newline delimited JSON, one Station per line",
+        operationId = "exportStations",
+        tags = {"Stations"},
+        responses = {
+                @ApiResponse(responseCode = "200", description = "Stations are being streamed.",
+                        content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Station.class))}),
+                @ApiResponse(responseCode = "500", description = "The background service layer failed to export the resources", content = {@Content(schema = @Schema())})
+        }
+)
+public @interface ExportStations {
+}
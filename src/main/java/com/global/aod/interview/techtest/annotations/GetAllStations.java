@@ -2,6 +2,7 @@ package com.global.aod.interview.techtest.annotations;
 
 import com.global.aod.interview.techtest.model.Station;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,12 +18,17 @@ import java.lang.annotation.Target;
 @Target({ElementType.METHOD})
 @Operation(
         summary = "Retrieve the list of available Stations",
-        description = "Retrieve the list of available Stations",
+        description = "Retrieve the list of available Stations. When limit or cursor is given, the list is returned page "
+                + "by page, and the cursor of the next page is sent in the X-Next-Cursor header. The list can be ordered "
+                + "by several fields, e.g. orderby=name,-id, pages only by a single field.",
         operationId = "getAllStations",
         tags = {"Stations"},
         responses = {
                 @ApiResponse(responseCode = "200", description = "Station resource successfully created.",
+                        headers = {@Header(name = "X-Next-Cursor", description = "Cursor of the next page, missing on the last page.")},
                         content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Station.class)))}),
+                @ApiResponse(responseCode = "304", description = "No station has changed since the list tagged by If-None-Match.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "400", description = "Invalid limit or cursor, or a page ordered by several fields.", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "500", description = "The background service layer failed to create the resource", content = {@Content(schema = @Schema())})
         }
 )
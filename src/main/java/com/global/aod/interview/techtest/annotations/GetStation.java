@@ -22,6 +22,7 @@ import java.lang.annotation.Target;
         responses = {
                 @ApiResponse(responseCode = "200", description = "Station resource successfully created.",
                         content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Station.class))}),
+                @ApiResponse(responseCode = "304", description = "The station has not changed since the version sent in If-None-Match.", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "400", description = "The given Station identifier is not a number.", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "404", description = "Station with the given identifier can't be found.", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "500", description = "The background service layer failed to create the resource", content = {@Content(schema = @Schema())})
@@ -0,0 +1,32 @@
+package com.global.aod.interview.techtest.annotations;
+
+import com.global.aod.interview.techtest.model.StationChange;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+@Operation(
+        summary = "Station changes since a point of the feed",
+        description = "Returns the writes of Stations after the given sequence number in the order they were committed, deleted Stations as tombstones. Polling clients send the seq of the last change they received as since",
+        operationId = "getStationChanges",
+        tags = {"Stations"},
+        responses = {
+                @ApiResponse(responseCode = "200", description = "The changes after since, at most limit of them.",
+                        content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = StationChange.class)))}),
+                @ApiResponse(responseCode = "204", description = "There are no changes after since.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "400", description = "Negative since or invalid limit.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "500", description = "The background service layer failed to read the changes", content = {@Content(schema = @Schema())})
+        }
+)
+public @interface GetStationChanges {
+}
@@ -0,0 +1,32 @@
+package com.global.aod.interview.techtest.annotations;
+
+import com.global.aod.interview.techtest.model.Station;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+@Operation(
+        summary = "Search Stations by name",
+        description = "Finds the Stations whose name contains or resembles the query, the best matches first",
+        operationId = "searchStations",
+        tags = {"Stations"},
+        responses = {
+                @ApiResponse(responseCode = "200", description = "Matching stations.",
+                        content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Station.class)))}),
+                @ApiResponse(responseCode = "204", description = "No station matches the query.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "400", description = "Blank query or invalid limit.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "500", description = "The background service layer failed to search the resources", content = {@Content(schema = @Schema())})
+        }
+)
+public @interface SearchStations {
+}
@@ -0,0 +1,31 @@
+package com.global.aod.interview.techtest.annotations;
+
+import com.global.aod.interview.techtest.model.StationChange;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+@Operation(
+        summary = "Stream of Station changes",
+        description = "Server-Sent Events of the created, updated and deleted Stations as they happen. The id of every event is its seq in the change feed, reconnecting clients send it as Last-Event-ID to resume where they left off. Slow clients are disconnected and expected to resume the same way",
+        operationId = "streamStationChanges",
+        tags = {"Stations"},
+        responses = {
+                @ApiResponse(responseCode = "200", description = "The stream of changes, the data of every event is a StationChange.",
+                        content = {@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = StationChange.class))}),
+                @ApiResponse(responseCode = "400", description = "Last-Event-ID is not a number.", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "500", description = "The background service layer failed to stream the changes", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "503", description = "There are too many subscribers, try again later.", content = {@Content(schema = @Schema())})
+        }
+)
+public @interface StreamStationChanges {
+}
@@ -22,7 +22,9 @@ import java.lang.annotation.Target;
         responses = {
                 @ApiResponse(responseCode = "200", description = "Station resource successfully updated (or created).",
                         content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Station.class))}),
+                @ApiResponse(responseCode = "404", description = "There is no station with the given identifier.", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "409", description = "The selected station has already been modified by someone another user", content = {@Content(schema = @Schema())}),
+                @ApiResponse(responseCode = "412", description = "The If-Match header does not match the current version of the station", content = {@Content(schema = @Schema())}),
                 @ApiResponse(responseCode = "500", description = "The background service layer failed to create the resource", content = {@Content(schema = @Schema())})
         }
 )
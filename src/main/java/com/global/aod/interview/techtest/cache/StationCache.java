@@ -0,0 +1,107 @@
+package com.global.aod.interview.techtest.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Read-through cache of stations keyed by their identifier. Size, expiry and statistics are configured by
+ * {@code spring.cache.caffeine.spec}.
+ * <p>
+ * Entries are only ever replaced by a station with a higher version, so a reader which loaded the station before a
+ * concurrent update can't overwrite the newer one. Deleted stations leave a tombstone behind for the same reason, and
+ * stations written by other instances a marker with the written version, which only that version or a newer one
+ * replaces. Tombstones and markers are misses for the readers.
+ */
+@Slf4j
+@Component
+public class StationCache {
+
+    public static final String CACHE_NAME = "stations";
+
+    private static final int TOMBSTONE_VERSION = Integer.MAX_VALUE;
+
+    private final Cache<Object, Object> cache;
+
+    public StationCache(CacheManager cacheManager) {
+        var springCache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Cache " + CACHE_NAME + " is not configured");
+        this.cache = ((CaffeineCache) springCache).getNativeCache();
+    }
+
+    /**
+     * @return the cached station or {@code null} when it has to be loaded from the database
+     */
+    public Station get(Long id) {
+        var station = (Station) cache.getIfPresent(id);
+        return station == null || isPlaceholder(station) ? null : station;
+    }
+
+    public void put(Station station) {
+        if (station == null || station.id() == null || station.version() == null) {
+            return;
+        }
+
+        cache.asMap().merge(station.id(), station,
+                (cached, loaded) -> isNewer((Station) loaded, (Station) cached) ? loaded : cached);
+    }
+
+    public void evict(Long id) {
+        cache.asMap().put(id, Station.builder().id(id).version(TOMBSTONE_VERSION).build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        log.debug("Refreshing cached station after {}", event);
+        if (event.type() == StationChangedEvent.Type.DELETED) {
+            evict(event.station().id());
+        } else {
+            put(event.station());
+        }
+    }
+
+    /**
+     * Drops the station if the cached version is older than the written one. Stations this instance wrote itself are
+     * usually cached with the written version already, those are kept.
+     */
+    @EventListener
+    public void onStationInvalidated(StationInvalidatedEvent event) {
+        log.debug("Invalidating cached station after {}", event);
+        if (event.isAll()) {
+            cache.invalidateAll();
+        } else if (event.deleted()) {
+            evict(event.id());
+        } else {
+            // A marker instead of dropping the entry, a reader which loaded the older version before can't cache it
+            var marker = Station.builder().id(event.id()).version(event.version()).build();
+            cache.asMap().merge(event.id(), marker,
+                    (cached, written) -> isNewer((Station) written, (Station) cached) ? written : cached);
+        }
+    }
+
+    private static boolean isNewer(Station loaded, Station cached) {
+        // A marker stands for the written version, which is cached once it is read
+        return isPlaceholder(cached) && !isTombstone(cached)
+                ? loaded.version() >= cached.version()
+                : loaded.version() > cached.version();
+    }
+
+    private static boolean isTombstone(Station station) {
+        return station.version() == TOMBSTONE_VERSION;
+    }
+
+    /**
+     * @return whether the entry is a tombstone or a marker, only stations read from the database have a name
+     */
+    private static boolean isPlaceholder(Station station) {
+        return station.stationName() == null;
+    }
+}
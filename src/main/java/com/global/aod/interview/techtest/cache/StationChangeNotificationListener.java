@@ -0,0 +1,137 @@
+package com.global.aod.interview.techtest.cache;
+
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.concurrent.Callable;
+
+/**
+ * Receives the writes of every instance from the {@code station_changes} channel of Postgres, enabled by
+ * {@code stations.change-notifications.enabled}. The channel is fed by a trigger on the station table, see the
+ * {@code db/vendor/postgresql} migrations, so there is no broker to run.
+ * <p>
+ * Every notification is republished as a {@link StationInvalidatedEvent} for the local caches, and evicts the station
+ * from the Hibernate second-level cache. The listening connection is opened outside the pool, it is held for the whole
+ * lifetime of the application. When it breaks, it is opened again and everything cached is invalidated, because the
+ * notifications sent in the meantime are lost.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "stations.change-notifications.enabled", havingValue = "true")
+public class StationChangeNotificationListener {
+
+    public static final String CHANNEL = "station_changes";
+
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+    private final Callable<Connection> connections;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache secondLevelCache;
+    private final Thread thread;
+
+    private volatile boolean running;
+
+    @Autowired
+    public StationChangeNotificationListener(DataSourceProperties dataSource, ApplicationEventPublisher eventPublisher,
+                                             EntityManagerFactory entityManagerFactory) {
+        this(() -> DriverManager.getConnection(dataSource.determineUrl(), dataSource.determineUsername(),
+                dataSource.determinePassword()), eventPublisher, entityManagerFactory);
+    }
+
+    StationChangeNotificationListener(Callable<Connection> connections, ApplicationEventPublisher eventPublisher,
+                                      EntityManagerFactory entityManagerFactory) {
+        this.connections = connections;
+        this.eventPublisher = eventPublisher;
+        this.secondLevelCache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.thread = new Thread(this::listen, "station-change-listener");
+        this.thread.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    /**
+     * Applies one notification, its payload is {@code <I|U|D>:<id>:<version>}.
+     */
+    void onNotification(String payload) {
+        var parts = payload.split(":");
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed station change notification {}", payload);
+            return;
+        }
+
+        var id = Long.valueOf(parts[1]);
+        secondLevelCache.evictEntityData(StationEntity.class, id);
+        eventPublisher.publishEvent("D".equals(parts[0])
+                ? StationInvalidatedEvent.deleted(id)
+                : StationInvalidatedEvent.written(id, Integer.valueOf(parts[2])));
+    }
+
+    void onReconnect() {
+        secondLevelCache.evictEntityData(StationEntity.class);
+        eventPublisher.publishEvent(StationInvalidatedEvent.all());
+    }
+
+    private void listen() {
+        var reconnecting = false;
+        while (running) {
+            try (var connection = connections.call()) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening to station changes on channel {}", CHANNEL);
+                if (reconnecting) {
+                    onReconnect();
+                }
+
+                var notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    var received = notifications.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (received != null) {
+                        for (var notification : received) {
+                            onNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Station change notifications interrupted, reconnecting in {} ms", RECONNECT_DELAY_MILLIS, e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
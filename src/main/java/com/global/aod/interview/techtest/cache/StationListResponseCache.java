@@ -0,0 +1,115 @@
+package com.global.aod.interview.techtest.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.global.aod.interview.techtest.configuration.StationListCacheProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationList;
+import com.global.aod.interview.techtest.model.StationListVersion;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The serialised {@code GET /stations} responses, one for every ordering, so an unchanged list isn't rendered by
+ * Jackson on every call. Responses of at least {@code stations.list-cache.min-compress-size} are kept gzip compressed as
+ * well, and sent as they are to the clients accepting it.
+ * <p>
+ * A response is tagged with the list version read together with its stations, the counter of the change log, which
+ * every write raises whichever instance made it. It is served as long as the current version isn't higher, so the
+ * writes of other instances make it stale just as well. A lower current version comes from a replica lagging behind
+ * the one the response was read from, the response is newer and kept. The local writes drop every response right
+ * away, to free the memory.
+ */
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(StationListCacheProperties.class)
+public class StationListResponseCache {
+
+    private final ObjectWriter writer;
+    private final Cache<Sort, StationListResponse> responses;
+    private final long minCompressSize;
+
+    public StationListResponseCache(ObjectMapper objectMapper, StationListCacheProperties properties) {
+        this.writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Station.class));
+        this.responses = Caffeine.newBuilder().maximumSize(properties.maximumSize()).build();
+        this.minCompressSize = properties.minCompressSize().toBytes();
+    }
+
+    /**
+     * @param version the current list version
+     * @param loader  reads the stations and their version when there is no response of at least the current version
+     * @return the response, tagged with the version of its stations, or {@code null} when there are no stations
+     */
+    public StationListResponse get(Sort sort, StationListVersion version, Supplier<StationList> loader) {
+        var cached = responses.getIfPresent(sort);
+        if (cached != null && cached.version().changeSeq() >= version.changeSeq()) {
+            return cached;
+        }
+
+        var list = loader.get();
+        if (list.stations() == null || list.stations().isEmpty()) {
+            return null;
+        }
+
+        var response = render(list.version(), list.stations());
+        responses.put(sort, response);
+        return response;
+    }
+
+    public void invalidateAll() {
+        responses.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        invalidateAll();
+    }
+
+    @EventListener
+    public void onStationInvalidated(StationInvalidatedEvent event) {
+        invalidateAll();
+    }
+
+    private StationListResponse render(StationListVersion version, List<Station> stations) {
+        try {
+            var json = writer.writeValueAsBytes(stations);
+            return new StationListResponse(version, json, json.length >= minCompressSize ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stations can't be serialised", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        var compressed = new ByteArrayOutputStream(json.length / 4);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * @param version the list version the response was rendered from
+     * @param json    the list as {@code JSON}
+     * @param gzipped the same compressed, {@code null} when the list is too small to be worth it
+     */
+    public record StationListResponse(StationListVersion version, byte[] json, byte[] gzipped) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The cache manager itself is auto-configured from the {@code spring.cache} properties, which also makes the cache
+ * statistics available as Actuator metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
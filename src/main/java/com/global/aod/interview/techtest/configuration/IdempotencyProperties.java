@@ -0,0 +1,17 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@code Idempotency-Key} of {@code POST /stations}.
+ *
+ * @param ttl         how long a key is remembered, a retry after that creates another station
+ * @param maximumSize the number of keys kept in memory, the oldest ones go first
+ * @param persistent  whether the keys are kept in the {@code station_idempotency_key} table as well, so they survive a
+ *                    restart and are shared by the instances
+ */
+@ConfigurationProperties("stations.idempotency")
+public record IdempotencyProperties(Duration ttl, long maximumSize, boolean persistent) {
+}
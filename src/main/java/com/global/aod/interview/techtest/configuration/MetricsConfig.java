@@ -0,0 +1,21 @@
+package com.global.aod.interview.techtest.configuration;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Times the beans annotated with {@link Timed}, like the station service. The endpoints, the repositories and the
+ * connection pool are timed by Spring Boot itself, their histograms are turned on by {@code management.metrics} in
+ * {@code application.yml}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,16 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory station name index behind {@code GET /stations/autocomplete}.
+ *
+ * @param enabled         whether autocomplete is answered from the index instead of the database
+ * @param rebuildInterval how often the whole index is loaded again, it is the longest time the writes of other
+ *                        instances stay unseen when the change notifications are off
+ */
+@ConfigurationProperties("stations.name-index")
+public record NameIndexProperties(boolean enabled, Duration rebuildInterval) {
+}
@@ -0,0 +1,24 @@
+package com.global.aod.interview.techtest.configuration;
+
+import com.global.aod.interview.techtest.mapper.StringToFieldsMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortDirectionMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Same converters as {@link WebConfig}, for the WebFlux variant.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(new StringToFieldsMapper());
+        registry.addConverter(new StringToSortDirectionMapper());
+        registry.addConverter(new StringToSortMapper());
+    }
+}
@@ -0,0 +1,82 @@
+package com.global.aod.interview.techtest.configuration;
+
+import com.global.aod.interview.techtest.sql.ReadReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+
+/**
+ * Sends the read-only transactions to the read replicas, enabled by {@code stations.read-replicas.enabled}.
+ * <p>
+ * The data source of the application becomes a {@link ReadReplicaRoutingDataSource}, in front of the primary pool,
+ * configured by {@code spring.datasource.*} as before, and a pool for every replica. The pools of the replicas are
+ * published by the {@code hikaricp.*} metrics too, tagged by their pool name. The routing data source is behind a
+ * {@link LazyConnectionDataSourceProxy}, so the connection is only taken once the transaction is known to be read-only.
+ */
+@Slf4j
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "stations.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReadReplicaProperties properties,
+                                 Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        var binder = Binder.get(environment);
+        var primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        var replicas = new LinkedHashMap<String, DataSource>();
+        properties.replicas().forEach((name, replica) -> {
+            var pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replica.url())
+                    .username(replica.username() != null ? replica.username() : dataSourceProperties.determineUsername())
+                    .password(replica.password() != null ? replica.password() : dataSourceProperties.determinePassword())
+                    .build();
+            // Set before binding, so hikari.pool-name can still override it
+            pool.setPoolName(primary.getPoolName() + "-" + name);
+            binder.bind("stations.read-replicas.replicas." + name + ".hikari", Bindable.ofInstance(pool));
+            // The metrics of the primary are bound by Spring Boot, it doesn't know about the replicas
+            meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(name, pool);
+        });
+
+        log.info("Read-only transactions are sent to the read replicas {}", replicas.keySet());
+        return new ClosingLazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replicas));
+    }
+
+    /**
+     * Closes the pools with the application, the proxy itself has nothing to close.
+     */
+    private static final class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy
+            implements AutoCloseable {
+
+        private ClosingLazyConnectionDataSourceProxy(ReadReplicaRoutingDataSource routingDataSource) {
+            super(routingDataSource);
+        }
+
+        @Override
+        public void close() throws Exception {
+            ((ReadReplicaRoutingDataSource) obtainTargetDataSource()).close();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Settings of the read replicas, keyed by their name. The pool of every replica is tuned by its own
+ * {@code stations.read-replicas.replicas.<name>.hikari.*} settings, like the primary by {@code spring.datasource.hikari.*}.
+ */
+@ConfigurationProperties("stations.read-replicas")
+public record ReadReplicaProperties(boolean enabled, Map<String, Replica> replicas) {
+
+    public ReadReplicaProperties {
+        replicas = replicas == null ? Map.of() : Map.copyOf(replicas);
+    }
+
+    /**
+     * @param url      JDBC URL of the replica, the driver is the one of the primary
+     * @param username the username of the primary when it is not set
+     * @param password the password of the primary when it is not set
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.global.aod.interview.techtest.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+/**
+ * Turns on the Hibernate second-level cache of the station entities, enabled by
+ * {@code stations.second-level-cache.enabled}. The query cache stays off, see {@code StationRepository.findAllStations}.
+ * <p>
+ * The regions are Caffeine caches behind JCache, created here from {@link SecondLevelCacheProperties} instead of a
+ * separate Caffeine config file. Hibernate statistics are switched on as well, they are published by Actuator as the
+ * {@code hibernate.second.level.cache.*} metrics, hits and misses tagged.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "stations.second-level-cache.enabled", havingValue = "true")
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            // Hibernate closes the cache manager together with the session factory
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, createCacheManager(properties));
+        };
+    }
+
+    private static CacheManager createCacheManager(SecondLevelCacheProperties properties) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = provider.getCacheManager();
+
+        properties.regions().forEach((name, region) -> {
+            if (cacheManager.getCache(name) != null) {
+                return;
+            }
+
+            var configuration = new CaffeineConfiguration<>();
+            // Hibernate keeps its own disassembled copy of the entities, there's no need for JCache to copy them again
+            configuration.setStoreByValue(false);
+            configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+            if (region.expireAfterWrite() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.expireAfterWrite().toNanos()));
+            }
+            cacheManager.createCache(name, configuration);
+            log.info("Second-level cache region {} created with {}", name, region);
+        });
+
+        return cacheManager;
+    }
+}
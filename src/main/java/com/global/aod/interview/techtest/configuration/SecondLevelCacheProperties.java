@@ -0,0 +1,24 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings of the Hibernate second-level cache, the regions are keyed by their name.
+ */
+@ConfigurationProperties("stations.second-level-cache")
+public record SecondLevelCacheProperties(boolean enabled, Map<String, Region> regions) {
+
+    public SecondLevelCacheProperties {
+        regions = regions == null ? Map.of() : Map.copyOf(regions);
+    }
+
+    /**
+     * @param maximumSize      the number of entries kept in the region
+     * @param expireAfterWrite how long an entry is kept, forever when it is not set
+     */
+    public record Region(long maximumSize, Duration expireAfterWrite) {
+    }
+}
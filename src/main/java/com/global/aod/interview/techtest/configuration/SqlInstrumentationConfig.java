@@ -0,0 +1,47 @@
+package com.global.aod.interview.techtest.configuration;
+
+import com.global.aod.interview.techtest.sql.InstrumentedDataSource;
+import com.global.aod.interview.techtest.sql.StatementStatisticsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Counts the statements of every request, see {@link StatementStatisticsFilter}, enabled by
+ * {@code stations.sql.enabled}. The pool is wrapped by an {@link InstrumentedDataSource}, everything using the data
+ * source goes through it. Its proxies cost a reflective call on every method of a connection, a statement or a result
+ * set, {@code InstrumentedDataSourceBenchmark} measures it.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "stations.sql.enabled", havingValue = "true")
+@EnableConfigurationProperties(SqlInstrumentationProperties.class)
+public class SqlInstrumentationConfig {
+
+    // Static, the post processor has to exist before the data source is created
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<SqlInstrumentationProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, properties.getObject().slowThreshold());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementStatisticsFilter statementStatisticsFilter(SqlInstrumentationProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        return new StatementStatisticsFilter(properties, meterRegistry);
+    }
+}
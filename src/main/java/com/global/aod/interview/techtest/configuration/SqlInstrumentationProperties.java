@@ -0,0 +1,20 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the statement statistics collected for every request.
+ *
+ * @param enabled            whether the connections of the pool are wrapped to collect the statistics, every call on a
+ *                           connection, statement and result set then goes through a proxy
+ * @param slowThreshold      statements taking at least this long are logged with their SQL
+ * @param nPlusOneThreshold  the same statement executed this many times by one request is logged as a likely N+1 select
+ * @param serverTiming       whether the database time and the statements of a request are sent in a
+ *                           {@code Server-Timing} header
+ */
+@ConfigurationProperties("stations.sql")
+public record SqlInstrumentationProperties(boolean enabled, Duration slowThreshold, int nPlusOneThreshold,
+                                           boolean serverTiming) {
+}
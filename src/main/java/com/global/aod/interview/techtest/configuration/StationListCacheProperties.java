@@ -0,0 +1,14 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the serialised {@code GET /stations} responses.
+ *
+ * @param maximumSize     the orderings whose response is kept
+ * @param minCompressSize the smallest response kept gzip compressed as well, smaller ones are always sent as they are
+ */
+@ConfigurationProperties("stations.list-cache")
+public record StationListCacheProperties(long maximumSize, DataSize minCompressSize) {
+}
@@ -0,0 +1,20 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@code GET /stations/stream} Server-Sent Events.
+ *
+ * @param bufferSize        the changes queued for one subscriber, a subscriber falling further behind is disconnected
+ * @param senders           the threads writing the events to the subscribers
+ * @param maxSubscribers    the connections served at the same time, more are refused
+ * @param timeout           how long a connection is kept open, clients reconnect and resume afterwards
+ * @param pollInterval      how often the change log is read for the writes of other instances
+ * @param heartbeatInterval how often a comment is sent, it keeps proxies from closing idle connections
+ */
+@ConfigurationProperties("stations.stream")
+public record StationStreamProperties(int bufferSize, int senders, int maxSubscribers, Duration timeout,
+                                      Duration pollInterval, Duration heartbeatInterval) {
+}
@@ -2,16 +2,20 @@ package com.global.aod.interview.techtest.configuration;
 
 import com.global.aod.interview.techtest.mapper.StringToFieldsMapper;
 import com.global.aod.interview.techtest.mapper.StringToSortDirectionMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@Profile("!reactive")
 public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(new StringToFieldsMapper());
         registry.addConverter(new StringToSortDirectionMapper());
+        registry.addConverter(new StringToSortMapper());
     }
 }
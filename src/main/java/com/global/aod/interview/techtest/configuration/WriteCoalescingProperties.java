@@ -0,0 +1,16 @@
+package com.global.aod.interview.techtest.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the coalesced single station updates.
+ *
+ * @param enabled whether {@code PUT /stations} with an id and a version is queued and written in batches
+ * @param window  how often the queued updates are written, an update waits at most this long before it is written
+ * @param timeout how long a caller waits for its update to be written, one not written by then is dropped with 503
+ */
+@ConfigurationProperties("stations.write-coalescing")
+public record WriteCoalescingProperties(boolean enabled, Duration window, Duration timeout) {
+}
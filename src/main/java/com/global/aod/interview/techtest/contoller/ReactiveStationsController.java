@@ -0,0 +1,91 @@
+package com.global.aod.interview.techtest.contoller;
+
+import com.global.aod.interview.techtest.annotations.CreateStation;
+import com.global.aod.interview.techtest.annotations.DeleteStation;
+import com.global.aod.interview.techtest.annotations.GetAllStations;
+import com.global.aod.interview.techtest.annotations.GetStation;
+import com.global.aod.interview.techtest.annotations.UpdateStation;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.service.ReactiveStationService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Nonnull;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link StationsController}, active with the {@code reactive} profile. Invalid input is
+ * rejected by WebFlux itself with {@code BAD_REQUEST(400)}.
+ */
+@Tag(name = "Stations", description = "Station management APIs")
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/stations")
+public class ReactiveStationsController {
+
+    private final ReactiveStationService stationService;
+
+    @CreateStation
+    @PostMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Station>> crateStation(@Valid @RequestBody Station station,
+                                                      UriComponentsBuilder uriComponentsBuilder) {
+        return stationService.createStation(station)
+                .map(response -> ResponseEntity.created(uriComponentsBuilder.path("/stations/{id}")
+                                .buildAndExpand(response.id())
+                                .toUri())
+                        .eTag(StationETags.of(response))
+                        .body(response));
+    }
+
+    /*
+    The stations are written as they come from the database, with application/x-ndjson one line at a time. Unlike the
+    servlet variant, an empty list is answered with OK(200) and an empty array, the status is sent before the first row
+    is read.
+     */
+    @GetAllStations
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Station> findAllStations(
+            @RequestParam(name = "orderby", required = false) Sort orderBy,
+            @RequestParam(name = "direction", required = false) Sort.Direction direction) {
+        return stationService.findAllStations(StringToSortMapper.sortBy(orderBy, direction));
+    }
+
+    @GetStation
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Station>> findById(@Nonnull @PathVariable Long id) {
+        return stationService.findById(id)
+                .map(station -> ResponseEntity.ok().eTag(StationETags.of(station)).body(station))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @UpdateStation
+    @PutMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Station>> updateStation(@Valid @RequestBody Station station) {
+        return stationService.updateStation(station)
+                .map(response -> ResponseEntity.ok().eTag(StationETags.of(response)).body(response));
+    }
+
+    @DeleteStation
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteStation(@PathVariable Long id) {
+        return stationService.deleteStation(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.global.aod.interview.techtest.contoller;
+
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationListVersion;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Strong entity tags of the station resources. A single station is tagged by its identifier and version, the list by
+ * the {@link StationListVersion} and the requested ordering.
+ */
+public final class StationETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private StationETags() {
+    }
+
+    public static String of(Station station) {
+        return of(station.id(), station.version());
+    }
+
+    public static String of(Long id, Integer version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static String of(StationListVersion version, Sort sort) {
+        var tag = new StringBuilder("\"list-").append(version.changeSeq());
+        var separator = '-';
+        for (var order : sort) {
+            tag.append(separator).append(order.getProperty().toUpperCase()).append('-').append(order.getDirection());
+            separator = ',';
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * The weak form of the tag, for another representation of the same resource, like a compressed one.
+     */
+    public static String weak(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag : WEAK_PREFIX + etag;
+    }
+
+    /**
+     * Weak comparison, as required for {@code If-None-Match}.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        for (var candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            if (tag.equals("*") || stripWeakPrefix(tag).equals(stripWeakPrefix(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version out of an {@code If-Match} header sent for the given station.
+     *
+     * @return the version, or {@code null} when the header does not hold a single strong tag of the station
+     */
+    public static Integer versionOf(String ifMatch, Long id) {
+        var tag = ifMatch.trim();
+        var prefix = "\"" + id + "-";
+        if (id == null || !tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
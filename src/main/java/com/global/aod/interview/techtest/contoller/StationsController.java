@@ -1,20 +1,38 @@
 package com.global.aod.interview.techtest.contoller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.global.aod.interview.techtest.annotations.AutocompleteStations;
 import com.global.aod.interview.techtest.annotations.CreateStation;
+import com.global.aod.interview.techtest.annotations.CreateStations;
 import com.global.aod.interview.techtest.annotations.DeleteStation;
+import com.global.aod.interview.techtest.annotations.DeleteStations;
+import com.global.aod.interview.techtest.annotations.ExportStations;
 import com.global.aod.interview.techtest.annotations.GetAllStations;
 import com.global.aod.interview.techtest.annotations.GetStation;
+import com.global.aod.interview.techtest.annotations.GetStationChanges;
+import com.global.aod.interview.techtest.annotations.SearchStations;
+import com.global.aod.interview.techtest.annotations.StreamStationChanges;
 import com.global.aod.interview.techtest.annotations.UpdateStation;
-import com.global.aod.interview.techtest.model.Fields;
+import com.global.aod.interview.techtest.annotations.UpdateStations;
+import com.global.aod.interview.techtest.cache.StationListResponseCache;
+import com.global.aod.interview.techtest.mapper.StringToFieldsMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
+import com.global.aod.interview.techtest.model.BatchItemResult;
 import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
 import com.global.aod.interview.techtest.service.StationService;
+import com.global.aod.interview.techtest.stream.StationChangeBroadcaster;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Nonnull;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
@@ -25,26 +43,43 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 
 @Tag(name = "Stations", description = "Station management APIs")
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/stations")
 public class StationsController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final String GZIP = "gzip";
+
     private static final Logger log = LoggerFactory.getLogger(StationsController.class);
     private final StationService stationService;
+    private final ObjectMapper objectMapper;
+    private final StationChangeBroadcaster changeBroadcaster;
+    private final StationListResponseCache listResponses;
 
     @CreateStation
     @PostMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Station> crateStation(@Valid @RequestBody Station station, BindingResult bindingResult) {
+    public ResponseEntity<Station> crateStation(@Valid @RequestBody Station station, BindingResult bindingResult,
+                                                @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         if (bindingResult.hasErrors()) {
             log.error("There are input validation failures while creating new station resource.");
@@ -54,45 +89,215 @@ public class StationsController {
             return ResponseEntity.badRequest().build();
         }
 
-        var response = stationService.createStation(station);
+        // A retry with the same key gets the same station, and so the same Location
+        var response = idempotencyKey == null
+                ? stationService.createStation(station)
+                : stationService.createStation(station, idempotencyKey);
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
                 .buildAndExpand(response.id())
                 .toUri();
 
-        return ResponseEntity.created(location).body(response);
+        return ResponseEntity.created(location).eTag(StationETags.of(response)).body(response);
+    }
+
+    @CreateStations
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> createStations(@RequestBody List<Station> stations) {
+        // Items are validated one by one by the service, an invalid item fails on its own, not the whole batch
+        return ResponseEntity.ok(stationService.createStations(stations));
     }
 
     @GetAllStations
     @GetMapping("")
-    public ResponseEntity<List<Station>> findAllStations(
-            @RequestParam(name = "orderby", required = false) Fields field,
+    public ResponseEntity<?> findAllStations(
+            @RequestParam(name = "orderby", required = false) Sort orderBy,
+            @RequestParam(name = "direction", required = false) Sort.Direction direction,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        if (limit != null || cursor != null) {
+            return findStationsPage(orderBy, direction, limit, cursor);
+        }
+
+        var sort = StringToSortMapper.sortBy(orderBy, direction);
+        // Only decides whether the client's or the cached list is still current, a list read now is tagged with its own
+        var version = stationService.findListVersion();
+        var eTag = StationETags.of(version, sort);
+        if (ifNoneMatch != null && StationETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        var listOfStations = listResponses.get(sort, version, () -> stationService.findStationList(sort));
+
+        if (listOfStations == null) {
+            return ResponseEntity.noContent().build();
+        }
+        // The version read together with the stations, it may be higher than the one read above
+        var listETag = StationETags.of(listOfStations.version(), sort);
+
+        // Already serialised, and compressed when it's large, the bytes are written as they are
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (listOfStations.gzipped() != null && acceptsGzip(acceptEncoding)) {
+            // Another representation of the same list, so the tag is weak, If-None-Match still matches it
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .eTag(StationETags.weak(listETag))
+                    .body(listOfStations.gzipped());
+        }
+
+        return response.eTag(listETag).body(listOfStations.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (var coding : acceptEncoding.split(",")) {
+            var parts = coding.split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                // gzip;q=0 refuses it
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<List<Station>> findStationsPage(Sort orderBy, Sort.Direction direction, Integer limit,
+                                                          String cursor) {
+        // The cursor is kept on a single field (and the id for ties), a multi field ordering can't be paged
+        if (orderBy != null && orderBy.stream().count() > 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Pages can only be ordered by a single field");
+        }
+
+        var order = orderBy != null ? orderBy.iterator().next() : null;
+        var field = order != null ? StringToFieldsMapper.lookup(order.getProperty()) : null;
+        if (direction == null && order != null && order.isDescending()) {
+            direction = Sort.Direction.DESC;
+        }
+        var page = stationService.findStationsPage(field, direction, limit, cursor);
+
+        if (CollectionUtils.isEmpty(page.stations())) {
+            return ResponseEntity.noContent().build();
+        }
+
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+
+        return response.body(page.stations());
+    }
+
+    @ExportStations
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStations(
+            @RequestParam(name = "orderby", required = false) Sort orderBy,
             @RequestParam(name = "direction", required = false) Sort.Direction direction) {
 
-        var listOfStations = stationService.findAllStations(field, direction);
+        // The body is written on an async thread, rows go out while the database cursor is still being read
+        var sort = StringToSortMapper.sortBy(orderBy, direction);
+        StreamingResponseBody body = outputStream -> {
+            var writer = objectMapper.writerFor(Station.class);
+            stationService.exportStations(sort, station -> writeLine(writer, outputStream, station));
+            outputStream.flush();
+        };
 
-        if (CollectionUtils.isEmpty(listOfStations)) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream outputStream, Station station) {
+        try {
+            outputStream.write(writer.writeValueAsBytes(station));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            // Most likely the client went away, this stops reading the database as well
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @GetStationChanges
+    @GetMapping("/changes")
+    public ResponseEntity<List<StationChange>> findChanges(@RequestParam(name = "since", defaultValue = "0") Long since,
+                                                           @RequestParam(name = "limit", required = false) Integer limit) {
+        var changes = stationService.findChanges(since, limit);
+
+        if (CollectionUtils.isEmpty(changes)) {
             return ResponseEntity.noContent().build();
         }
 
-        return ResponseEntity.ok(listOfStations);
+        return ResponseEntity.ok(changes);
+    }
+
+    @StreamStationChanges
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return changeBroadcaster.subscribe(null);
+        }
+
+        try {
+            return changeBroadcaster.subscribe(Long.valueOf(lastEventId.trim()));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Last-Event-ID must be a change seq", e);
+        }
+    }
+
+    @SearchStations
+    @GetMapping("/search")
+    public ResponseEntity<List<Station>> searchStations(@RequestParam(name = "q") String query,
+                                                        @RequestParam(name = "limit", required = false) Integer limit) {
+        var stations = stationService.searchStations(query, limit);
+
+        if (CollectionUtils.isEmpty(stations)) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(stations);
+    }
+
+    @AutocompleteStations
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<Station>> autocompleteStations(@RequestParam(name = "prefix") String prefix,
+                                                              @RequestParam(name = "limit", required = false) Integer limit) {
+        var stations = stationService.autocompleteStations(prefix, limit);
+
+        if (CollectionUtils.isEmpty(stations)) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(stations);
     }
 
     @GetStation
     @GetMapping("/{id}")
-    public ResponseEntity<Station> findById(@Nonnull @PathVariable Long id) {
+    public ResponseEntity<Station> findById(@Nonnull @PathVariable Long id,
+                                            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Only the version is read, the station itself is loaded when the client's copy is out of date
+            var version = stationService.findVersionById(id);
+            if (version != null && StationETags.matches(ifNoneMatch, StationETags.of(id, version))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(StationETags.of(id, version)).build();
+            }
+        }
+
         var station = stationService.findById(id);
 
         if (station == null) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(station);
+        return ResponseEntity.ok().eTag(StationETags.of(station)).body(station);
     }
 
     @UpdateStation
     @PutMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Station> updateStation(@Valid @RequestBody Station station, BindingResult bindingResult) {
+    public ResponseEntity<Station> updateStation(@Valid @RequestBody Station station, BindingResult bindingResult,
+                                                 @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (bindingResult.hasErrors()) {
             log.error("There are input validation failures while updating station resource");
             // At this place we have the chance to calculate detailed result from the fields failed validation.
@@ -101,8 +306,34 @@ public class StationsController {
             return ResponseEntity.badRequest().build();
         }
 
-        var response = stationService.updateStation(station);
-        return ResponseEntity.ok(response);
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            var response = stationService.updateStation(station);
+            return ResponseEntity.ok().eTag(StationETags.of(response)).body(response);
+        }
+
+        // The version in the If-Match header takes the place of the version sent in the body
+        var version = StationETags.versionOf(ifMatch, station.id());
+        if (version == null) {
+            log.error("If-Match header does not belong to station id={}", station.id());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        try {
+            var response = stationService.updateStation(new Station(station.id(), station.stationName(), version));
+            return ResponseEntity.ok().eTag(StationETags.of(response)).body(response);
+        } catch (ResponseStatusException e) {
+            if (HttpStatus.CONFLICT.equals(e.getStatusCode())) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "", e);
+            }
+            throw e;
+        }
+    }
+
+    @UpdateStations
+    @PutMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> updateStations(@RequestBody List<Station> stations) {
+        // Items are validated one by one by the service, like for the batch create
+        return ResponseEntity.ok(stationService.updateStations(stations));
     }
 
     @DeleteStation
@@ -111,4 +342,10 @@ public class StationsController {
         stationService.deleteStation(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteStations
+    @DeleteMapping("")
+    public ResponseEntity<List<BatchItemResult>> deleteStations(@RequestParam(name = "ids") List<Long> ids) {
+        return ResponseEntity.ok(stationService.deleteStations(ids));
+    }
 }
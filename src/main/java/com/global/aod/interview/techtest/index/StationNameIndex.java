@@ -0,0 +1,310 @@
+package com.global.aod.interview.techtest.index;
+
+import com.global.aod.interview.techtest.configuration.NameIndexProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import com.global.aod.interview.techtest.repository.StationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of the station names for prefix autocomplete, enabled by {@code stations.name-index.enabled}.
+ * <p>
+ * Readers binary search an immutable {@link Snapshot} of names sorted in their normalised form (lower case, without
+ * accents), they never lock and never touch the database. The index is loaded after startup, until then
+ * {@link #isBuilt()} is {@code false} and the callers search the database instead. It is kept current with the
+ * {@link StationChangedEvent}s of committed writes. Changes are queued and merged into a new snapshot by a single
+ * thread, so a burst of writes, like a batch create, is applied with one swap instead of one copy per station.
+ * <p>
+ * The writes of other instances only arrive with {@code stations.change-notifications.enabled}. Without them they are
+ * picked up by loading the whole index again every {@code stations.name-index.rebuild-interval}.
+ * <p>
+ * Build times are published as {@code stations.name.index.build}, the size as {@code stations.name.index.entries} and
+ * the estimated heap footprint, including the identifiers of recently deleted stations, as
+ * {@code stations.name.index.memory}.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "stations.name-index.enabled", havingValue = "true")
+@EnableConfigurationProperties(NameIndexProperties.class)
+public class StationNameIndex {
+
+    // Long enough for the events of concurrent transactions to arrive, deleted stations are forgotten after it
+    static final Duration DELETED_RETENTION = Duration.ofMinutes(1);
+    // A linked hash map entry with its boxed id and deletion time
+    private static final long DELETED_ENTRY_BYTES = 40 + 16 + 16;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Entry> BY_KEY_AND_ID =
+            Comparator.comparing(Entry::key).thenComparing(entry -> entry.station().id());
+
+    /**
+     * Names and stations in the same order, sorted by the normalised name and then by id.
+     */
+    record Snapshot(String[] keys, Station[] stations, long estimatedBytes) {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], new Station[0], 0);
+    }
+
+    private record Entry(String key, Station station) {
+
+        static Entry of(Station station) {
+            return new Entry(normalise(station.stationName()), station);
+        }
+    }
+
+    private final StationRepository repository;
+    private final NameIndexProperties properties;
+    private final ExecutorService merger;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    private final Timer fullBuildTimer;
+    private final Timer incrementalBuildTimer;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final Queue<StationChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+    private volatile int deletedCount;
+    private volatile boolean built;
+
+    // Only touched by the merger thread. The deleted ids with the time of their deletion, the oldest first
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    private final LinkedHashMap<Long, Long> deletedIds = new LinkedHashMap<>();
+
+    @Autowired
+    public StationNameIndex(StationRepository repository, NameIndexProperties properties, MeterRegistry meterRegistry) {
+        this(repository, properties, meterRegistry, Executors.newSingleThreadExecutor(daemon("station-name-index")),
+                Executors.newSingleThreadScheduledExecutor(daemon("station-name-index-rebuild")), Clock.systemUTC());
+    }
+
+    StationNameIndex(StationRepository repository, NameIndexProperties properties, MeterRegistry meterRegistry,
+                     ExecutorService merger, ScheduledExecutorService scheduler, Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.merger = merger;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.fullBuildTimer = Timer.builder("stations.name.index.build").tag("type", "full")
+                .description("Time to load the whole index from the database").register(meterRegistry);
+        this.incrementalBuildTimer = Timer.builder("stations.name.index.build").tag("type", "incremental")
+                .description("Time to merge queued changes into a new snapshot").register(meterRegistry);
+        Gauge.builder("stations.name.index.entries", snapshot, current -> current.get().keys().length)
+                .register(meterRegistry);
+        Gauge.builder("stations.name.index.memory", this, StationNameIndex::estimatedBytes)
+                .baseUnit("bytes").description("Estimated heap used by the index").register(meterRegistry);
+    }
+
+    /**
+     * Stations whose normalised name starts with the normalised prefix, in name order.
+     */
+    public List<Station> autocomplete(String prefix, int limit) {
+        var current = snapshot.get();
+        var key = normalise(prefix);
+
+        // Lower bound: the first name not smaller than the prefix
+        int low = 0;
+        int high = current.keys().length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (current.keys()[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        var result = new ArrayList<Station>(Math.min(limit, current.keys().length - low));
+        for (int i = low; i < current.keys().length && result.size() < limit && current.keys()[i].startsWith(key); i++) {
+            result.add(current.stations()[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return whether the stations have been loaded, before that the index is empty
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        var intervalMillis = properties.rebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuild, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void rebuild() {
+        merger.execute(() -> fullBuildTimer.record(() -> {
+            var stations = repository.findAllStations(Sort.by(Sort.Direction.ASC, "id"));
+            entriesById.clear();
+            deletedIds.clear();
+            deletedCount = 0;
+            stations.forEach(station -> entriesById.put(station.id(), Entry.of(station)));
+            // Changes queued while loading are applied again, applying a change twice does no harm
+            applyPending();
+            publish();
+            built = true;
+            log.info("Station name index built with {} stations", entriesById.size());
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        pending.add(event);
+        if (mergeScheduled.compareAndSet(false, true)) {
+            merger.execute(() -> {
+                mergeScheduled.set(false);
+                incrementalBuildTimer.record(() -> {
+                    if (applyPending()) {
+                        publish();
+                    }
+                });
+            });
+        }
+    }
+
+    /**
+     * Writes of other instances only tell the identifier and the version, the name of a newer version is read from the
+     * database.
+     */
+    @EventListener
+    public void onStationInvalidated(StationInvalidatedEvent event) {
+        if (event.isAll()) {
+            rebuild();
+        } else if (event.deleted()) {
+            onStationChanged(StationChangedEvent.deleted(event.id()));
+        } else {
+            merger.execute(() -> {
+                var current = entriesById.get(event.id());
+                if (current == null || current.station().version() < event.version()) {
+                    repository.findStationById(event.id())
+                            .ifPresent(station -> onStationChanged(StationChangedEvent.updated(station)));
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        merger.shutdownNow();
+    }
+
+    Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    long estimatedBytes() {
+        return snapshot.get().estimatedBytes() + DELETED_ENTRY_BYTES * deletedCount;
+    }
+
+    static String normalise(String name) {
+        var decomposed = Normalizer.normalize(name.strip(), Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /*
+    Events of concurrent transactions may arrive out of order, so a station is only replaced by a newer version, and
+    a deleted station is not brought back by a late update. Identifiers are never reused, a deleted one is only kept
+    for DELETED_RETENTION, for those late updates.
+     */
+    private boolean applyPending() {
+        var now = clock.millis();
+        forgetDeletedBefore(now - DELETED_RETENTION.toMillis());
+
+        var changed = false;
+        for (var event = pending.poll(); event != null; event = pending.poll()) {
+            var station = event.station();
+            if (event.type() == StationChangedEvent.Type.DELETED) {
+                // Removed first, so the map stays ordered by the time of deletion
+                deletedIds.remove(station.id());
+                deletedIds.put(station.id(), now);
+                changed |= entriesById.remove(station.id()) != null;
+            } else if (!deletedIds.containsKey(station.id())) {
+                var current = entriesById.get(station.id());
+                if (current == null || current.station().version() < station.version()) {
+                    entriesById.put(station.id(), Entry.of(station));
+                    changed = true;
+                }
+            }
+        }
+        deletedCount = deletedIds.size();
+        return changed;
+    }
+
+    private void forgetDeletedBefore(long millis) {
+        var oldest = deletedIds.entrySet().iterator();
+        while (oldest.hasNext() && oldest.next().getValue() < millis) {
+            oldest.remove();
+        }
+    }
+
+    private void publish() {
+        var entries = entriesById.values().toArray(Entry[]::new);
+        Arrays.sort(entries, BY_KEY_AND_ID);
+
+        var keys = new String[entries.length];
+        var stations = new Station[entries.length];
+        long bytes = arrayBytes(entries.length) * 2;
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i].key();
+            stations[i] = entries[i].station();
+            // The station record with its boxed id and version, its name and the normalised key
+            bytes += 64 + stringBytes(stations[i].stationName()) + stringBytes(keys[i]);
+        }
+        snapshot.set(new Snapshot(keys, stations, bytes));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static long arrayBytes(int length) {
+        return 16 + 4L * length;
+    }
+
+    private static long stringBytes(String value) {
+        return 24 + 16 + value.length() * 2L;
+    }
+}
@@ -2,6 +2,7 @@ package com.global.aod.interview.techtest.mapper;
 
 import com.global.aod.interview.techtest.model.Station;
 import com.global.aod.interview.techtest.model.entity.StationEntity;
+import com.global.aod.interview.techtest.model.entity.StationRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants.ComponentModel;
@@ -16,4 +17,10 @@ public interface StationMapper {
 
     @Mapping(target = "name", source = "stationName")
     StationEntity toEntity(Station source);
+
+    @Mapping(target = "stationName", source = "name")
+    Station toDto(StationRow source);
+
+    @Mapping(target = "name", source = "stationName")
+    StationRow toRow(Station source);
 }
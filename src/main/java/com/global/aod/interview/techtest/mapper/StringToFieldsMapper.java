@@ -1,21 +1,37 @@
 package com.global.aod.interview.techtest.mapper;
 
 import com.global.aod.interview.techtest.model.Fields;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.convert.converter.Converter;
 
 public class StringToFieldsMapper implements Converter<String, Fields> {
 
+    private static final Fields[] FIELDS = Fields.values();
+
     @Override
     public Fields convert(String source) {
-        var field = Fields.ID;
-        if (StringUtils.isNotBlank(source)) {
-            try {
-                field = Fields.valueOf(source.toUpperCase());
-            } catch (IllegalArgumentException ignored) {
+        var field = lookup(source);
+        return field != null ? field : Fields.ID;
+    }
+
+    /**
+     * Case-insensitive lookup by name. Nothing is allocated and nothing is thrown, not even for unknown names.
+     *
+     * @return the field, or {@code null} when there is no field with that name
+     */
+    public static Fields lookup(String source) {
+        return source != null ? lookup(source, 0, source.length()) : null;
+    }
+
+    /**
+     * Same as {@link #lookup(String)}, for the name between {@code from} (inclusive) and {@code to} (exclusive).
+     */
+    public static Fields lookup(String source, int from, int to) {
+        for (var field : FIELDS) {
+            var name = field.name();
+            if (name.length() == to - from && name.regionMatches(true, 0, source, from, name.length())) {
+                return field;
             }
         }
-
-        return field;
+        return null;
     }
 }
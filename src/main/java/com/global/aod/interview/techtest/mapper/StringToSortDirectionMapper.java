@@ -1,20 +1,20 @@
 package com.global.aod.interview.techtest.mapper;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.domain.Sort;
 
 public class StringToSortDirectionMapper implements Converter<String, Sort.Direction> {
 
+    private static final Sort.Direction[] DIRECTIONS = Sort.Direction.values();
+
     @Override
     public Sort.Direction convert(String source) {
-        var sortDirection = Sort.Direction.ASC;
-        if (StringUtils.isNotBlank(source)) {
-            try {
-                sortDirection = Sort.Direction.valueOf(source.toUpperCase());
-            } catch (IllegalArgumentException ignored) {
+        // No toUpperCase and no valueOf, so nothing is allocated or thrown for any input
+        for (var direction : DIRECTIONS) {
+            if (direction.name().equalsIgnoreCase(source)) {
+                return direction;
             }
         }
-        return sortDirection;
+        return Sort.Direction.ASC;
     }
 }
@@ -0,0 +1,137 @@
+package com.global.aod.interview.techtest.mapper;
+
+import com.global.aod.interview.techtest.model.Fields;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts sort specs like {@code name,-id} into a {@link Sort}. Fields are separated by commas, a leading {@code -}
+ * sorts the field descending, a leading {@code +} (or nothing) ascending. Unknown and repeated fields are skipped,
+ * and the stations are ordered by id when no field is left.
+ * <p>
+ * Every ordering a spec can result in is built once, when the class is loaded, there are only a few of them. A spec is
+ * scanned without allocating anything and mapped to one of those shared {@link Sort} instances, whatever the client
+ * sends.
+ */
+public class StringToSortMapper implements Converter<String, Sort> {
+
+    private static final Fields[] FIELDS = Fields.values();
+    private static final Sort.Direction[] DIRECTIONS = Sort.Direction.values();
+
+    // An order is coded as a digit from 1 (0 is no order), a list of orders as the number with those digits
+    private static final int CODE_BASE = FIELDS.length * DIRECTIONS.length + 1;
+
+    private static final Sort[][] SINGLE_FIELD_SORTS = new Sort[FIELDS.length][DIRECTIONS.length];
+    private static final Sort[] MULTI_FIELD_SORTS = new Sort[(int) Math.pow(CODE_BASE, FIELDS.length)];
+
+    static {
+        for (var field : FIELDS) {
+            for (var direction : DIRECTIONS) {
+                SINGLE_FIELD_SORTS[field.ordinal()][direction.ordinal()] = Sort.by(direction, field.getField());
+            }
+        }
+        addMultiFieldSorts(new ArrayList<>(), 0, 0);
+    }
+
+    @Override
+    public Sort convert(String source) {
+        return parse(source);
+    }
+
+    /**
+     * The shared {@link Sort} of a single field, ordered by id and ascending by default.
+     */
+    public static Sort sortBy(Fields field, Sort.Direction direction) {
+        return SINGLE_FIELD_SORTS[(field != null ? field : Fields.ID).ordinal()]
+                [(direction != null ? direction : Sort.Direction.ASC).ordinal()];
+    }
+
+    /**
+     * Combines the {@code orderby} and {@code direction} parameters. The direction parameter is older than multi field
+     * ordering, it still sets the direction when a single field is given.
+     */
+    public static Sort sortBy(Sort orderBy, Sort.Direction direction) {
+        if (orderBy == null) {
+            return sortBy((Fields) null, direction);
+        }
+
+        var orders = orderBy.toList();
+        if (direction != null && orders.size() == 1) {
+            return sortBy(StringToFieldsMapper.lookup(orders.get(0).getProperty()), direction);
+        }
+        return orderBy;
+    }
+
+    private static Sort parse(String source) {
+        var code = 0;
+        var count = 0;
+        var seen = 0;
+        Fields firstField = null;
+        Sort.Direction firstDirection = null;
+
+        var from = 0;
+        while (from <= source.length()) {
+            var to = source.indexOf(',', from);
+            if (to < 0) {
+                to = source.length();
+            }
+
+            // A '+' arrives as a space when the client didn't encode it
+            var start = from;
+            var end = to;
+            while (start < end && Character.isWhitespace(source.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(source.charAt(end - 1))) {
+                end--;
+            }
+
+            var direction = Sort.Direction.ASC;
+            if (start < end && (source.charAt(start) == '-' || source.charAt(start) == '+')) {
+                direction = source.charAt(start) == '-' ? Sort.Direction.DESC : Sort.Direction.ASC;
+                start++;
+            }
+
+            var field = StringToFieldsMapper.lookup(source, start, end);
+            if (field != null && (seen & 1 << field.ordinal()) == 0) {
+                seen |= 1 << field.ordinal();
+                if (firstField == null) {
+                    firstField = field;
+                    firstDirection = direction;
+                }
+                code = code * CODE_BASE + digit(field, direction);
+                count++;
+            }
+            from = to + 1;
+        }
+
+        return count > 1 ? MULTI_FIELD_SORTS[code] : sortBy(firstField, firstDirection);
+    }
+
+    private static int digit(Fields field, Sort.Direction direction) {
+        return field.ordinal() * DIRECTIONS.length + direction.ordinal() + 1;
+    }
+
+    /**
+     * Adds the orderings starting with the given orders, with every field not used yet in both directions.
+     */
+    private static void addMultiFieldSorts(List<Sort.Order> orders, int code, int seen) {
+        if (orders.size() > 1) {
+            MULTI_FIELD_SORTS[code] = Sort.by(List.copyOf(orders));
+        }
+
+        for (var field : FIELDS) {
+            if ((seen & 1 << field.ordinal()) != 0) {
+                continue;
+            }
+            for (var direction : DIRECTIONS) {
+                orders.add(new Sort.Order(direction, field.getField()));
+                addMultiFieldSorts(orders, code * CODE_BASE + digit(field, direction), seen | 1 << field.ordinal());
+                orders.remove(orders.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.global.aod.interview.techtest.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(title = "BatchItemResult", description = "Outcome of one item of a batch operation")
+public record BatchItemResult(
+        @Schema(description = "Position of the item in the request.", example = "0")
+        int index,
+        @Schema(description = "Http status code describing the outcome of the item.", example = "201")
+        int status,
+        @Schema(description = "The resulting Station, missing when the item failed.")
+        Station station,
+        @Schema(description = "Reason of the failure, missing when the item succeeded.", example = "stationName is missing")
+        String error) {
+}
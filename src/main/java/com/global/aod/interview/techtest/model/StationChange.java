@@ -0,0 +1,25 @@
+package com.global.aod.interview.techtest.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(title = "StationChange", description = "One write of a station in the change feed")
+public record StationChange(
+        @Schema(description = "Position of the change in the feed, send the last one received as since.", example = "42")
+        long seq,
+        @Schema(description = "Identifier of the written station.", example = "7")
+        Long id,
+        @Schema(description = "The name after the write, missing when the station was deleted.", example = "Heart UK")
+        String stationName,
+        @Schema(description = "The version after the write, missing when the station was deleted.", example = "1")
+        Integer version,
+        @Schema(description = "Whether the station was deleted.", example = "false")
+        boolean deleted) {
+
+    public static StationChange written(Station station) {
+        return new StationChange(0, station.id(), station.stationName(), station.version(), false);
+    }
+
+    public static StationChange deleted(Long id) {
+        return new StationChange(0, id, null, null, true);
+    }
+}
@@ -0,0 +1,40 @@
+package com.global.aod.interview.techtest.model;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last station returned in a page. It is handed out to clients as an opaque, URL safe string and
+ * turned back into seek predicates on the next call, so no OFFSET is ever needed.
+ */
+public record StationCursor(Fields field, Sort.Direction direction, Long id, String name) {
+
+    private static final String SEPARATOR = "|";
+
+    public static StationCursor after(Station last, Fields field, Sort.Direction direction) {
+        return new StationCursor(field, direction, last.id(), field == Fields.NAME ? last.stationName() : null);
+    }
+
+    public String encode() {
+        var raw = String.join(SEPARATOR, field.name(), direction.name(), id.toString(), name != null ? name : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value is not a cursor produced by {@link #encode()}
+     */
+    public static StationCursor decode(String value) {
+        var raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        // The name goes last, so it may contain the separator itself
+        var parts = raw.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        var field = Fields.valueOf(parts[0]);
+        return new StationCursor(field, Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]),
+                field == Fields.NAME ? parts[3] : null);
+    }
+}
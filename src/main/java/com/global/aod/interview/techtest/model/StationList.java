@@ -0,0 +1,10 @@
+package com.global.aod.interview.techtest.model;
+
+import java.util.List;
+
+/**
+ * All stations together with the list version read right before them, on the same connection. The stations are at
+ * least as new as the version, never older.
+ */
+public record StationList(StationListVersion version, List<Station> stations) {
+}
@@ -0,0 +1,9 @@
+package com.global.aod.interview.techtest.model;
+
+/**
+ * Version of the whole station list, the sequence number of the last committed station write. Every write reserves a
+ * higher number from the counter of the change log in its own transaction, so the version changes with any write,
+ * whichever instance made it.
+ */
+public record StationListVersion(long changeSeq) {
+}
@@ -0,0 +1,9 @@
+package com.global.aod.interview.techtest.model;
+
+import java.util.List;
+
+/**
+ * One page of stations and the cursor pointing to the next one. The cursor is {@code null} on the last page.
+ */
+public record StationPage(List<Station> stations, String nextCursor) {
+}
@@ -1,5 +1,6 @@
 package com.global.aod.interview.techtest.model.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -9,17 +10,33 @@ import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+/*
+Read-write caching soft locks the entry while a transaction writes the station. The version is part of the cached
+state, so a transaction which read an older version still fails its optimistic check.
+ */
 @Entity
 @Table(name = "station")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = StationEntity.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StationEntity {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    public static final String CACHE_REGION = "station";
+
+    /*
+    The allocation size has to match the INCREMENT of the database sequence. Hibernate uses the pooled optimizer, so
+    one nextval reserves ids for 50 inserts, and the inserts themselves can be sent in JDBC batches.
+     */
     @Id
     @GeneratedValue(generator = "station_entity_generator")
-    @SequenceGenerator(name = "station_entity_generator", sequenceName = "station_entity_seq", allocationSize = 1)
+    @SequenceGenerator(name = "station_entity_generator", sequenceName = "station_entity_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String name;
@@ -0,0 +1,27 @@
+package com.global.aod.interview.techtest.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * The station table as seen by the reactive (R2DBC) variant of the service, the counterpart of {@link StationEntity}.
+ * A row without version is inserted, with version it is updated on the condition that the version hasn't changed.
+ */
+@Table("station")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StationRow {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    @Version
+    private Integer version;
+}
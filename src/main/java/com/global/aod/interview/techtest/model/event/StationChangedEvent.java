@@ -0,0 +1,26 @@
+package com.global.aod.interview.techtest.model.event;
+
+import com.global.aod.interview.techtest.model.Station;
+
+/**
+ * Published by the service layer whenever a station is written. Listeners interested in committed data only should
+ * use {@code @TransactionalEventListener}. For deletions the station carries the identifier only.
+ */
+public record StationChangedEvent(Type type, Station station) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static StationChangedEvent created(Station station) {
+        return new StationChangedEvent(Type.CREATED, station);
+    }
+
+    public static StationChangedEvent updated(Station station) {
+        return new StationChangedEvent(Type.UPDATED, station);
+    }
+
+    public static StationChangedEvent deleted(Long id) {
+        return new StationChangedEvent(Type.DELETED, Station.builder().id(id).build());
+    }
+}
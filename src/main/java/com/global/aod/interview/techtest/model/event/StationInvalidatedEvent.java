@@ -0,0 +1,25 @@
+package com.global.aod.interview.techtest.model.event;
+
+/**
+ * A station has been written by any of the instances, as reported by the database. Unlike {@link StationChangedEvent}
+ * it only tells the identifier and the written version, caches drop or reload the entries older than that. Without an
+ * identifier any station may have changed, for example while the notifications were not received.
+ */
+public record StationInvalidatedEvent(Long id, Integer version, boolean deleted) {
+
+    public static StationInvalidatedEvent written(Long id, Integer version) {
+        return new StationInvalidatedEvent(id, version, false);
+    }
+
+    public static StationInvalidatedEvent deleted(Long id) {
+        return new StationInvalidatedEvent(id, null, true);
+    }
+
+    public static StationInvalidatedEvent all() {
+        return new StationInvalidatedEvent(null, null, false);
+    }
+
+    public boolean isAll() {
+        return id == null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.global.aod.interview.techtest.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * For the repository fragments with database specific SQL.
+ */
+final class Dialects {
+
+    private Dialects() {
+    }
+
+    static boolean isPostgres(EntityManager entityManager) {
+        var dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return dialect instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,48 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.StationChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes of the reactive variant into the {@code station_change} table, the counterpart of {@link StationChangeLog}.
+ * The same counter row numbers the changes, so the change feed and the version of the station list see the writes of
+ * both variants.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStationChangeLog {
+
+    private static final String RESERVE = "UPDATE station_change_counter SET seq = seq + 1 WHERE id = 1";
+    private static final String LAST_RESERVED = "SELECT seq FROM station_change_counter WHERE id = 1";
+    private static final String INSERT = "INSERT INTO station_change (seq, station_id, name, version, deleted) "
+            + "VALUES (:seq, :stationId, :name, :version, :deleted)";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Logs the change, its sequence number is ignored.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Mono<Void> append(StationChange change) {
+        return databaseClient.sql(RESERVE).then()
+                .then(databaseClient.sql(LAST_RESERVED).map(row -> row.get(0, Long.class)).one())
+                .flatMap(seq -> insert(seq, change));
+    }
+
+    private Mono<Void> insert(long seq, StationChange change) {
+        var spec = databaseClient.sql(INSERT)
+                .bind("seq", seq)
+                .bind("stationId", change.id())
+                .bind("deleted", change.deleted());
+        spec = change.stationName() == null ? spec.bindNull("name", String.class) : spec.bind("name", change.stationName());
+        spec = change.version() == null ? spec.bindNull("version", Integer.class) : spec.bind("version", change.version());
+        return spec.then();
+    }
+}
@@ -0,0 +1,20 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.entity.StationRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveStationRepository extends R2dbcRepository<StationRow, Long> {
+
+    /**
+     * @return the number of deleted rows, {@code 0} when the station doesn't exist
+     */
+    @Modifying
+    @Query("DELETE FROM station WHERE id = :id")
+    Mono<Integer> deleteStationById(@Param("id") Long id);
+}
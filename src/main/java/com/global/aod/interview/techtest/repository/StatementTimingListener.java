@@ -0,0 +1,49 @@
+package com.global.aod.interview.techtest.repository;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the statements Hibernate sends to the database, registered for every session by
+ * {@code hibernate.session.events.auto}. A statement is timed until the database answers, reading and mapping the rows
+ * comes after. So {@code stations.db.statements} is the time spent in the database, and the rest of
+ * {@code spring.data.repository.invocations} is spent in Hibernate and the mapping. The statements of the
+ * {@code JdbcTemplate} based repositories don't go through Hibernate, they are only timed by the repository timer.
+ * <p>
+ * Hibernate creates the listeners itself, so the timers live in the global registry, which Spring Boot adds its
+ * registries to.
+ */
+public class StatementTimingListener implements SessionEventListener {
+
+    private static final Timer STATEMENTS = Timer.builder("stations.db.statements").tag("type", "single")
+            .description("Time until the database answered a statement").register(Metrics.globalRegistry);
+    private static final Timer BATCHES = Timer.builder("stations.db.statements").tag("type", "batch")
+            .description("Time until the database answered a statement").register(Metrics.globalRegistry);
+
+    // A session is used by one thread at a time
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        STATEMENTS.record(System.nanoTime() - statementStart, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        BATCHES.record(System.nanoTime() - batchStart, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,30 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.Station;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set based writes, implemented by {@link StationBulkRepositoryImpl} because the statements depend on the database.
+ * Nothing is loaded into the persistence context, the changes are made in the database only.
+ */
+public interface StationBulkRepository {
+
+    /**
+     * Renames every station whose id and version match, and increments its version.
+     *
+     * @param stations stations with distinct ids, the name to set and the version the change is based on
+     * @return the stations updated, with their new version. Stations missing from it had a different version or do
+     * not exist.
+     */
+    @Transactional
+    List<Station> updateAll(List<Station> stations);
+
+    /**
+     * @return the ids of the stations deleted, the ones missing from it did not exist
+     */
+    @Transactional
+    List<Long> deleteByIds(Collection<Long> ids);
+}
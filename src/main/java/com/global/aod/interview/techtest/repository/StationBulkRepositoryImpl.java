@@ -0,0 +1,131 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+On Postgres every call is a single statement: the stations are bound as three arrays and joined to the table with
+unnest, or matched with = ANY, and RETURNING tells which rows were hit. Other databases, like H2 in the tests, get one
+JDBC batch of single row statements, whose update counts tell the same.
+
+Either way Hibernate doesn't see the statements, the second-level cache entries of the stations are evicted by hand,
+once right away and once more after the commit, in case a concurrent reader cached the old rows in between.
+ */
+@RequiredArgsConstructor
+public class StationBulkRepositoryImpl implements StationBulkRepository {
+
+    private static final String POSTGRES_UPDATE = "UPDATE station s SET name = v.name, version = s.version + 1 "
+            + "FROM unnest(?::bigint[], ?::text[], ?::integer[]) AS v(id, name, version) "
+            + "WHERE s.id = v.id AND s.version = v.version "
+            + "RETURNING s.id, s.name, s.version";
+
+    private static final String POSTGRES_DELETE = "DELETE FROM station WHERE id = ANY(?::bigint[]) RETURNING id";
+
+    private static final String UPDATE = "UPDATE station SET name = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String DELETE = "DELETE FROM station WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private Boolean postgres;
+
+    @Override
+    public List<Station> updateAll(List<Station> stations) {
+        var updated = update(stations);
+        if (!updated.isEmpty()) {
+            evictSecondLevelCache();
+        }
+        return updated;
+    }
+
+    @Override
+    public List<Long> deleteByIds(Collection<Long> ids) {
+        var deleted = delete(ids);
+        if (!deleted.isEmpty()) {
+            evictSecondLevelCache();
+        }
+        return deleted;
+    }
+
+    private List<Station> update(List<Station> stations) {
+        if (stations.isEmpty()) {
+            return List.of();
+        }
+
+        if (!isPostgres()) {
+            var counts = jdbcTemplate.batchUpdate(UPDATE, stations.stream()
+                    .map(station -> new Object[]{station.stationName(), station.id(), station.version()})
+                    .toList());
+            var updated = new ArrayList<Station>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 1) {
+                    var station = stations.get(i);
+                    updated.add(new Station(station.id(), station.stationName(), station.version() + 1));
+                }
+            }
+            return updated;
+        }
+
+        return jdbcTemplate.query(POSTGRES_UPDATE, statement -> {
+            var connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("bigint", stations.stream().map(Station::id).toArray()));
+            statement.setArray(2, connection.createArrayOf("text", stations.stream().map(Station::stationName).toArray()));
+            statement.setArray(3, connection.createArrayOf("integer", stations.stream().map(Station::version).toArray()));
+        }, (row, rowNum) -> new Station(row.getLong(1), row.getString(2), row.getInt(3)));
+    }
+
+    private List<Long> delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        if (!isPostgres()) {
+            var idList = List.copyOf(ids);
+            var counts = jdbcTemplate.batchUpdate(DELETE, idList.stream().map(id -> new Object[]{id}).toList());
+            var deleted = new ArrayList<Long>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 1) {
+                    deleted.add(idList.get(i));
+                }
+            }
+            return deleted;
+        }
+
+        return jdbcTemplate.query(POSTGRES_DELETE,
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint", ids.toArray())),
+                (row, rowNum) -> row.getLong(1));
+    }
+
+    private void evictSecondLevelCache() {
+        var cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        Runnable evict = () -> cache.evictEntityData(StationEntity.class);
+
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = Dialects.isPostgres(entityManager);
+        }
+        return postgres;
+    }
+}
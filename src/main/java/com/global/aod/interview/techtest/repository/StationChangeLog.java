@@ -0,0 +1,86 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.StationChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The append-only {@code station_change} table behind the change feed.
+ * <p>
+ * Sequence numbers are taken from a single counter row, which stays locked until the writing transaction commits. So
+ * the changes become visible in the order of their numbers, and a reader who continues from the last number received
+ * never misses a change. The price is that station writes commit one after the other, which suits a catalogue that is
+ * read far more often than written. The counter is updated as the last statement of a write, only the inserts of new
+ * stations may be flushed after it.
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class StationChangeLog {
+
+    private static final String RESERVE = "UPDATE station_change_counter SET seq = seq + ? WHERE id = 1";
+    private static final String LAST_RESERVED = "SELECT seq FROM station_change_counter WHERE id = 1";
+    private static final String INSERT = "INSERT INTO station_change (seq, station_id, name, version, deleted) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_SINCE = "SELECT seq, station_id, name, version, deleted FROM station_change "
+            + "WHERE seq > ? ORDER BY seq LIMIT ?";
+    private static final String LAST_SEQ = "SELECT coalesce(max(seq), 0) FROM station_change";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Logs the changes in the given order, the sequence numbers of the arguments are ignored.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<StationChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(RESERVE, changes.size());
+        long last = jdbcTemplate.queryForObject(LAST_RESERVED, Long.class);
+
+        var rows = new ArrayList<Object[]>(changes.size());
+        var seq = last - changes.size();
+        for (var change : changes) {
+            rows.add(new Object[]{++seq, change.id(), change.stationName(), change.version(), change.deleted()});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StationChange> findSince(long since, int limit) {
+        return jdbcTemplate.query(SELECT_SINCE, (row, rowNum) -> new StationChange(
+                row.getLong("seq"),
+                row.getLong("station_id"),
+                row.getString("name"),
+                row.getObject("version", Integer.class),
+                row.getBoolean("deleted")), since, limit);
+    }
+
+    /**
+     * Reads the counter, a single row by its primary key. Readers aren't blocked by the writer holding the row, they
+     * see the value of the last committed write.
+     *
+     * @return the last sequence number reserved by a committed write, {@code 0} when nothing has been written yet
+     */
+    @Transactional(readOnly = true)
+    public long lastReserved() {
+        return jdbcTemplate.queryForObject(LAST_RESERVED, Long.class);
+    }
+
+    /**
+     * @return the sequence number of the last committed change, {@code 0} when nothing has been logged yet
+     */
+    @Transactional(readOnly = true)
+    public long lastSeq() {
+        return jdbcTemplate.queryForObject(LAST_SEQ, Long.class);
+    }
+}
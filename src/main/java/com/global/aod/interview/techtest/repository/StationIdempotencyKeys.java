@@ -0,0 +1,54 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.Station;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The {@code station_idempotency_key} table, the stations created with an {@code Idempotency-Key}. The station is kept
+ * as it was created, a retry is answered with it without reading the {@code station} table.
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class StationIdempotencyKeys {
+
+    private static final String SELECT = "SELECT station_id, name, version FROM station_idempotency_key "
+            + "WHERE idempotency_key = ? AND created_at >= ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM station_idempotency_key WHERE created_at < ?";
+    private static final String INSERT = "INSERT INTO station_idempotency_key "
+            + "(idempotency_key, station_id, name, version, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * No read-only transaction, with read replicas a key saved a moment ago has to be seen, so this reads the primary.
+     *
+     * @return the station created with the key since {@code notBefore}
+     */
+    public Optional<Station> find(String key, Instant notBefore) {
+        return jdbcTemplate.query(SELECT, (row, rowNum) -> new Station(
+                row.getLong("station_id"),
+                row.getString("name"),
+                row.getInt("version")), key, Timestamp.from(notBefore)).stream().findFirst();
+    }
+
+    /**
+     * Saves the key together with the station, a key saved by a concurrent transaction fails with
+     * {@link org.springframework.dao.DuplicateKeyException} once that one commits. Expired keys are deleted first,
+     * including an expired row of the same key.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void save(String key, Station station, Instant createdAt, Instant notBefore) {
+        jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(notBefore));
+        jdbcTemplate.update(INSERT, key, station.id(), station.stationName(), station.version(), Timestamp.from(createdAt));
+    }
+}
@@ -1,9 +1,94 @@
 package com.global.aod.interview.techtest.repository;
 
+import com.global.aod.interview.techtest.model.Station;
 import com.global.aod.interview.techtest.model.entity.StationEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+The read queries select straight into the Station record. Nothing gets into the persistence context, so there are no
+entity snapshots to take and nothing to dirty check, and the MapStruct copy is not needed either. Entities are only
+loaded when they are about to be written.
+ */
 @Repository
-public interface StationRepository extends JpaRepository<StationEntity, Long> {
+@Transactional(readOnly = true)
+public interface StationRepository extends JpaRepository<StationEntity, Long>, StationSearchRepository,
+        StationBulkRepository {
+
+    String SELECT_STATION = "select new com.global.aod.interview.techtest.model.Station(s.id, s.name, s.version) "
+            + "from StationEntity s";
+
+    /**
+     * Not kept in the Hibernate query cache, it would only be invalidated by the writes of this instance. The list is
+     * cached by {@code StationListResponseCache}, which is kept in step with every instance by the list version.
+     */
+    @Query(SELECT_STATION)
+    List<Station> findAllStations(Sort sort);
+
+    @Query(SELECT_STATION + " where s.id = :id")
+    Optional<Station> findStationById(@Param("id") Long id);
+
+    /**
+     * Streams every station from an open cursor. It must be called in a transaction, otherwise the JDBC driver
+     * ignores the fetch size and reads the whole result set into memory. The stream has to be closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_STATION)
+    Stream<Station> streamAll(Sort sort);
+
+    @Query("select s.id from StationEntity s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.version from StationEntity s where s.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Long id);
+
+    /*
+    Single statement writes. Nothing is loaded before them, the number of affected rows tells whether the station was
+    there, with the expected version in case of the update.
+     */
+
+    @Transactional
+    @Modifying
+    @Query("update StationEntity s set s.name = :name, s.version = s.version + 1 where s.id = :id and s.version = :version")
+    int updateStation(@Param("id") Long id, @Param("name") String name, @Param("version") Integer version);
+
+    @Transactional
+    @Modifying
+    @Query("delete from StationEntity s where s.id = :id")
+    int deleteStationById(@Param("id") Long id);
+
+    /*
+    Keyset pagination queries. The ordering comes from the Pageable, which is always the first page, so the database
+    never has to skip rows. The name based predicates are written as a range on name first, that way they can be
+    served by the (name, id) index.
+     */
+
+    @Query(SELECT_STATION)
+    List<Station> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_STATION + " where s.id > :id")
+    List<Station> findPageAfterId(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_STATION + " where s.id < :id")
+    List<Station> findPageBeforeId(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_STATION + " where s.name >= :name and (s.name > :name or s.id > :id)")
+    List<Station> findPageAfterName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_STATION + " where s.name <= :name and (s.name < :name or s.id < :id)")
+    List<Station> findPageBeforeName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
 }
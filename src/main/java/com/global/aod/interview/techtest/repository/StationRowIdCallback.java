@@ -0,0 +1,70 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import com.global.aod.interview.techtest.model.entity.StationRow;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gives new station rows an id from {@code station_entity_seq}, the same way Hibernate's pooled optimizer does for
+ * {@link StationEntity}: one {@code nextval} reserves the block of ids up to and including the returned value. So the
+ * JPA and the reactive variant can write into the same table at the same time.
+ */
+@Component
+@Profile("reactive")
+public class StationRowIdCallback implements BeforeConvertCallback<StationRow> {
+
+    private static final String NEXT_VALUE = "SELECT nextval('station_entity_seq')";
+
+    private final DatabaseClient databaseClient;
+
+    // Guarded by this, next > high means the block is used up
+    private long next = 1;
+    private long high = 0;
+
+    public StationRowIdCallback(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Publisher<StationRow> onBeforeConvert(StationRow row, SqlIdentifier table) {
+        if (row.getId() != null) {
+            return Mono.just(row);
+        }
+
+        return nextId().map(id -> {
+            row.setId(id);
+            return row;
+        });
+    }
+
+    private Mono<Long> nextId() {
+        synchronized (this) {
+            if (next <= high) {
+                return Mono.just(next++);
+            }
+        }
+
+        // Concurrent callers may fetch a block each, the ids left in the block replaced here are skipped, never reused
+        return nextHighValue().map(value -> {
+            synchronized (this) {
+                high = value;
+                next = value - StationEntity.ID_ALLOCATION_SIZE + 1;
+                return next++;
+            }
+        });
+    }
+
+    private Mono<Long> nextHighValue() {
+        return databaseClient.sql(NEXT_VALUE)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                // A new sequence starts at 1, a block ending there would start below 1
+                .flatMap(value -> value < StationEntity.ID_ALLOCATION_SIZE ? nextHighValue() : Mono.just(value));
+    }
+}
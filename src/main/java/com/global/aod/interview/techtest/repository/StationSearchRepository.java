@@ -0,0 +1,19 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.Station;
+
+import java.util.List;
+
+/**
+ * Name search, implemented by {@link StationSearchRepositoryImpl} because the query depends on the database.
+ */
+public interface StationSearchRepository {
+
+    /**
+     * Finds the stations whose name contains the query, or on Postgres is similar to it, the best matches first.
+     *
+     * @param query lower case search text
+     * @param limit the maximum number of stations returned
+     */
+    List<Station> searchByName(String query, int limit);
+}
@@ -0,0 +1,64 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.Station;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+/*
+On Postgres the search is served by the trigram index on lower(name) (db/vendor/postgresql): both the substring match
+and the word similarity operator (<%) are answered from it, so the cost doesn't grow with the table. Prefix matches
+come first, then the rest by similarity. Other databases, like H2 in the tests, fall back to a plain substring match.
+ */
+public class StationSearchRepositoryImpl implements StationSearchRepository {
+
+    private static final String POSTGRES_SEARCH = "SELECT id, name, version FROM station "
+            + "WHERE lower(name) LIKE :contains OR :query <% lower(name) "
+            + "ORDER BY lower(name) LIKE :prefix DESC, word_similarity(:query, lower(name)) DESC, name, id "
+            + "LIMIT :limit";
+
+    private static final String FALLBACK_SEARCH = StationRepository.SELECT_STATION
+            + " where lower(s.name) like :contains escape '\\'"
+            + " order by case when lower(s.name) like :prefix escape '\\' then 0 else 1 end, s.name, s.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Boolean postgres;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Station> searchByName(String query, int limit) {
+        var pattern = escapeLikePattern(query);
+
+        if (!isPostgres()) {
+            return entityManager.createQuery(FALLBACK_SEARCH, Station.class)
+                    .setParameter("contains", "%" + pattern + "%")
+                    .setParameter("prefix", pattern + "%")
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        List<Object[]> rows = entityManager.createNativeQuery(POSTGRES_SEARCH)
+                .setParameter("contains", "%" + pattern + "%")
+                .setParameter("prefix", pattern + "%")
+                .setParameter("query", query)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new Station(((Number) row[0]).longValue(), (String) row[1], ((Number) row[2]).intValue()))
+                .toList();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = Dialects.isPostgres(entityManager);
+        }
+        return postgres;
+    }
+
+    private static String escapeLikePattern(String query) {
+        return query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,22 @@
+package com.global.aod.interview.techtest.service;
+
+import com.global.aod.interview.techtest.model.Station;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link StationService}, active with the {@code reactive} profile.
+ */
+public interface ReactiveStationService {
+
+    Mono<Station> createStation(Station station);
+
+    Flux<Station> findAllStations(Sort sort);
+
+    Mono<Station> findById(Long id);
+
+    Mono<Station> updateStation(Station station);
+
+    Mono<Void> deleteStation(Long id);
+}
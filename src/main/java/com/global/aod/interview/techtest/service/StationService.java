@@ -1,20 +1,50 @@
 package com.global.aod.interview.techtest.service;
 
+import com.global.aod.interview.techtest.model.BatchItemResult;
 import com.global.aod.interview.techtest.model.Fields;
 import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.StationList;
+import com.global.aod.interview.techtest.model.StationListVersion;
+import com.global.aod.interview.techtest.model.StationPage;
 import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StationService {
 
     Station createStation(Station station);
 
-    List<Station> findAllStations(Fields fields, Sort.Direction direction);
+    Station createStation(Station station, String idempotencyKey);
+
+    List<BatchItemResult> createStations(List<Station> stations);
+
+    List<Station> findAllStations(Sort sort);
+
+    StationList findStationList(Sort sort);
+
+    StationPage findStationsPage(Fields fields, Sort.Direction direction, Integer limit, String cursor);
+
+    void exportStations(Sort sort, Consumer<Station> consumer);
+
+    List<StationChange> findChanges(Long since, Integer limit);
+
+    List<Station> searchStations(String query, Integer limit);
+
+    List<Station> autocompleteStations(String prefix, Integer limit);
 
     Station findById(Long id);
 
+    Integer findVersionById(Long id);
+
+    StationListVersion findListVersion();
+
     Station updateStation(Station station);
 
+    List<BatchItemResult> updateStations(List<Station> stations);
+
     void deleteStation(Long id);
+
+    List<BatchItemResult> deleteStations(List<Long> ids);
 }
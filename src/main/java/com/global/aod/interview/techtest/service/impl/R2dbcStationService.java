@@ -0,0 +1,95 @@
+package com.global.aod.interview.techtest.service.impl;
+
+import com.global.aod.interview.techtest.mapper.StationMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
+import com.global.aod.interview.techtest.model.Fields;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.entity.StationRow;
+import com.global.aod.interview.techtest.repository.ReactiveStationChangeLog;
+import com.global.aod.interview.techtest.repository.ReactiveStationRepository;
+import com.global.aod.interview.techtest.service.ReactiveStationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The writes are logged in the change log by the same transaction, like the ones of {@link StationServiceImpl}. No
+ * {@code StationChangedEvent} is published, nothing listens to them in this variant. Other instances hear about the
+ * writes from the trigger on the {@code station} table.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class R2dbcStationService implements ReactiveStationService {
+
+    private final ReactiveStationRepository repository;
+    private final ReactiveStationChangeLog changeLog;
+    private final StationMapper mapper;
+
+    @Override
+    @Transactional
+    public Mono<Station> createStation(Station station) {
+        log.info("Creating station name={}", station.stationName());
+        // The id is taken from the sequence by StationRowIdCallback
+        return repository.save(new StationRow(null, station.stationName(), null))
+                .map(mapper::toDto)
+                .flatMap(this::logWritten);
+    }
+
+    @Override
+    public Flux<Station> findAllStations(Sort sort) {
+        log.info("Getting all Stations...");
+        // Rows are read as the subscriber requests them, a slow client slows down the query instead of filling memory
+        return repository.findAll(sort != null && sort.isSorted() ? sort : StringToSortMapper.sortBy((Fields) null, null))
+                .map(mapper::toDto);
+    }
+
+    @Override
+    public Mono<Station> findById(Long id) {
+        log.info("Getting station data with id={}", id);
+        return repository.findById(id)
+                .map(mapper::toDto);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Station> updateStation(Station station) {
+        log.info("Updating station with data={}", station);
+        // Without version the row would be inserted, an update has to name the version it was based on
+        if (station.id() == null || station.version() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "id and version are required"));
+        }
+
+        return repository.save(mapper.toRow(station))
+                .map(mapper::toDto)
+                .onErrorMap(OptimisticLockingFailureException.class, e -> {
+                    log.error("Version mismatch while updating station.", e);
+                    return new ResponseStatusException(HttpStatus.CONFLICT, "", e);
+                })
+                .flatMap(this::logWritten);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteStation(Long id) {
+        log.info("Deleting station with id={}", id);
+        return repository.deleteStationById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Station not found"))
+                        : changeLog.append(StationChange.deleted(id)));
+    }
+
+    private Mono<Station> logWritten(Station station) {
+        return changeLog.append(StationChange.written(station)).thenReturn(station);
+    }
+}
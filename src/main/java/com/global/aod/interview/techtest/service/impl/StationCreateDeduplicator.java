@@ -0,0 +1,154 @@
+package com.global.aod.interview.techtest.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.global.aod.interview.techtest.configuration.IdempotencyProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.repository.StationIdempotencyKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Creates a station only once per {@code Idempotency-Key}, a retry of {@code POST /stations} is answered with the
+ * station created by the first request.
+ * <p>
+ * The created stations are kept in memory by their key, bounded by {@code stations.idempotency.maximum-size} and for
+ * {@code stations.idempotency.ttl}, so a retry costs a map lookup, without a transaction. With
+ * {@code stations.idempotency.persistent} the key is saved by the transaction creating the station as well, a retry
+ * reaching another instance, or one after a restart, is answered from the table. The primary key of the table makes
+ * sure two instances can't create a station for the same key.
+ * <p>
+ * A retry while the first request is still running gets 409, the same key with another station name gets 422.
+ * {@code stations.idempotency.replays} counts the retries answered with an existing station.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class StationCreateDeduplicator {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final StationIdempotencyKeys idempotencyKeys;
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+    private final Cache<String, Station> created;
+    private final Counter replays;
+
+    // Keys of the creates running on this instance
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public StationCreateDeduplicator(StationIdempotencyKeys idempotencyKeys, IdempotencyProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this(idempotencyKeys, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    StationCreateDeduplicator(StationIdempotencyKeys idempotencyKeys, IdempotencyProperties properties,
+                              MeterRegistry meterRegistry, Clock clock) {
+        this.idempotencyKeys = idempotencyKeys;
+        this.properties = properties;
+        this.clock = clock;
+        this.created = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, created, "station-idempotency-keys");
+        this.replays = Counter.builder("stations.idempotency.replays")
+                .description("Station creates answered with the station created before with the same Idempotency-Key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param creator creates the station in a transaction, which calls {@link #save} before it commits
+     * @return the station created now, or the one created before with the same key
+     */
+    public Station create(String key, Station station, Supplier<Station> creator) {
+        if (StringUtils.isBlank(key) || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must not be blank or longer than " + MAX_KEY_LENGTH + " characters");
+        }
+
+        var known = created.getIfPresent(key);
+        if (known != null) {
+            return replay(key, known, station);
+        }
+
+        if (!inFlight.add(key)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with the same Idempotency-Key is in progress");
+        }
+        try {
+            // The request holding the key may have finished since the lookup above, or another instance used it
+            known = find(key);
+            if (known != null) {
+                return replay(key, known, station);
+            }
+
+            var response = creator.get();
+            created.put(key, response);
+            return response;
+        } catch (DuplicateKeyException e) {
+            // Another instance saved the key first, its station is the one to answer with
+            known = find(key);
+            if (known == null) {
+                throw e;
+            }
+            return replay(key, known, station);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Saves the key of the created station in the table, when the keys are persistent.
+     */
+    public void save(String key, Station station) {
+        if (properties.persistent()) {
+            idempotencyKeys.save(key, station, clock.instant(), notBefore());
+        }
+    }
+
+    private Station find(String key) {
+        var known = created.getIfPresent(key);
+        if (known == null && properties.persistent()) {
+            known = idempotencyKeys.find(key, notBefore()).orElse(null);
+            if (known != null) {
+                created.put(key, known);
+            }
+        }
+        return known;
+    }
+
+    private Station replay(String key, Station known, Station station) {
+        if (!Objects.equals(known.stationName(), station.stationName())) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used to create a different station");
+        }
+
+        log.info("Answering a retry with Idempotency-Key={} with station id={}", key, known.id());
+        replays.increment();
+        return known;
+    }
+
+    private Instant notBefore() {
+        return clock.instant().minus(properties.ttl());
+    }
+}
@@ -1,28 +1,75 @@
 package com.global.aod.interview.techtest.service.impl;
 
+import com.global.aod.interview.techtest.cache.StationCache;
+import com.global.aod.interview.techtest.index.StationNameIndex;
 import com.global.aod.interview.techtest.mapper.StationMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
+import com.global.aod.interview.techtest.model.BatchItemResult;
 import com.global.aod.interview.techtest.model.Fields;
 import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.StationList;
+import com.global.aod.interview.techtest.model.StationCursor;
+import com.global.aod.interview.techtest.model.StationListVersion;
+import com.global.aod.interview.techtest.model.StationPage;
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.repository.StationChangeLog;
 import com.global.aod.interview.techtest.repository.StationRepository;
 import com.global.aod.interview.techtest.service.StationService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
+// Every method is timed, tagged by its name, see MetricsConfig
+@Timed(value = "stations.service", histogram = true)
 public class StationServiceImpl implements StationService {
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 10_000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int DEFAULT_CHANGES_LIMIT = 1000;
+    static final int MAX_CHANGES_LIMIT = 10_000;
+    // Same as hibernate.jdbc.batch_size
+    static final int FLUSH_SIZE = 50;
+
     private final StationRepository repository;
     private final StationMapper mapper;
+    private final EntityManager entityManager;
+    private final StationCache stationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<StationNameIndex> nameIndex;
+    private final StationChangeLog changeLog;
+    private final StationUpdateCoalescer updateCoalescer;
+    private final StationCreateDeduplicator createDeduplicator;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -36,28 +83,242 @@ public class StationServiceImpl implements StationService {
         var entity = mapper.toEntity(station);
         var responseEntity = repository.save(entity);
 
-        return mapper.toDto(responseEntity);
+        var response = mapper.toDto(responseEntity);
+        changeLog.append(List.of(StationChange.written(response)));
+        eventPublisher.publishEvent(StationChangedEvent.created(response));
+        return response;
+    }
+
+    /*
+    No transaction here, a retry is answered by the deduplicator without one. The first request creates the station in
+    a transaction of its own, which saves the key together with the station.
+     */
+    @Override
+    public Station createStation(Station station, String idempotencyKey) {
+        return createDeduplicator.create(idempotencyKey, station, () -> transactionTemplate.execute(status -> {
+            var response = createStation(station);
+            createDeduplicator.save(idempotencyKey, response);
+            return response;
+        }));
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResult> createStations(List<Station> stations) {
+        if (stations.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " stations can be created at once");
+        }
+        log.info("Creating {} stations", stations.size());
+
+        var results = new ArrayList<BatchItemResult>(stations.size());
+        var changes = new ArrayList<StationChange>(stations.size());
+        var pending = 0;
+        for (int i = 0; i < stations.size(); i++) {
+            var station = stations.get(i);
+            if (station == null || StringUtils.isBlank(station.stationName())) {
+                results.add(new BatchItemResult(i, HttpStatus.BAD_REQUEST.value(), null, "stationName is missing"));
+                continue;
+            }
+
+            // Identifier and version are always assigned by the database, whatever the client sent
+            var entity = repository.save(new StationEntity(null, station.stationName(), null));
+            var response = mapper.toDto(entity);
+            results.add(new BatchItemResult(i, HttpStatus.CREATED.value(), response, null));
+            changes.add(StationChange.written(response));
+            eventPublisher.publishEvent(StationChangedEvent.created(response));
+
+            if (++pending == FLUSH_SIZE) {
+                // Sends the inserts as one JDBC batch, and keeps the persistence context small
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+
+        changeLog.append(changes);
+        return results;
     }
 
     @Override
-    public List<Station> findAllStations(Fields field, Sort.Direction direction) {
+    @Transactional(readOnly = true)
+    public List<Station> findAllStations(Sort sort) {
         log.info("Getting all Stations...");
-        return repository.findAll(
-                Sort.by(direction != null ? direction : Sort.Direction.ASC,
-                        field != null ? field.getField() : Fields.ID.getField())
-        ).stream().map(mapper::toDto).toList();
+        return repository.findAllStations(sortOrDefault(sort));
+    }
+
+    /*
+    One read-only transaction, so with read replicas the version and the stations come from the same one. The version is
+    read first, the stations can only be newer, a replica further ahead can't tag an older list with its version.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StationList findStationList(Sort sort) {
+        log.info("Getting all Stations with the list version...");
+        var version = findListVersion();
+        return new StationList(version, repository.findAllStations(sortOrDefault(sort)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportStations(Sort sort, Consumer<Station> consumer) {
+        log.info("Exporting all Stations...");
+        // Stations are not entities, nothing piles up in the persistence context however many rows are exported
+        try (var stations = repository.streamAll(sortOrDefault(sort))) {
+            stations.forEach(consumer);
+        }
+    }
+
+    private static Sort sortOrDefault(Sort sort) {
+        return sort != null && sort.isSorted() ? sort : StringToSortMapper.sortBy((Fields) null, null);
+    }
+
+    @Override
+    public List<StationChange> findChanges(Long since, Integer limit) {
+        var changesLimit = limit != null ? limit : DEFAULT_CHANGES_LIMIT;
+        if (changesLimit < 1 || changesLimit > MAX_CHANGES_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_CHANGES_LIMIT);
+        }
+        if (since == null || since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must not be negative");
+        }
+
+        log.info("Getting Station changes since={}, limit={}", since, changesLimit);
+        return changeLog.findSince(since, changesLimit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Station> searchStations(String query, Integer limit) {
+        var searchLimit = limit != null ? limit : DEFAULT_SEARCH_LIMIT;
+        if (searchLimit < 1 || searchLimit > MAX_SEARCH_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (StringUtils.isBlank(query)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must not be blank");
+        }
+
+        log.info("Searching Stations q={}, limit={}", query, searchLimit);
+        return repository.searchByName(query.trim().toLowerCase(), searchLimit);
+    }
+
+    /*
+    No transaction here either, with the name index enabled the database isn't needed at all. Without it the database
+    search answers, which puts prefix matches first as well.
+     */
+    @Override
+    public List<Station> autocompleteStations(String prefix, Integer limit) {
+        var searchLimit = limit != null ? limit : DEFAULT_SEARCH_LIMIT;
+        if (searchLimit < 1 || searchLimit > MAX_SEARCH_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (StringUtils.isBlank(prefix)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "prefix must not be blank");
+        }
+
+        var index = nameIndex.getIfAvailable();
+        // Until the index is loaded after startup, it would answer every prefix with nothing
+        if (index == null || !index.isBuilt()) {
+            return repository.searchByName(prefix.trim().toLowerCase(), searchLimit);
+        }
+        return index.autocomplete(prefix, searchLimit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StationPage findStationsPage(Fields field, Sort.Direction direction, Integer limit, String cursor) {
+        var pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        var after = cursor != null ? decodeCursor(cursor, field, direction) : null;
+        var orderBy = after != null ? after.field() : field != null ? field : Fields.ID;
+        var sortDirection = after != null ? after.direction() : direction != null ? direction : Sort.Direction.ASC;
+        log.info("Getting a page of Stations orderBy={}, direction={}, limit={}", orderBy, sortDirection, pageSize);
+
+        // One extra row tells us whether there is a next page, without a count query
+        var pageable = PageRequest.of(0, pageSize + 1, orderBy == Fields.NAME
+                ? Sort.by(sortDirection, Fields.NAME.getField(), Fields.ID.getField())
+                : StringToSortMapper.sortBy(Fields.ID, sortDirection));
+        var stations = findPage(after, orderBy, sortDirection, pageable);
+
+        if (stations.size() <= pageSize) {
+            return new StationPage(stations, null);
+        }
+
+        var page = stations.subList(0, pageSize);
+        return new StationPage(page, StationCursor.after(page.get(pageSize - 1), orderBy, sortDirection).encode());
+    }
+
+    private List<Station> findPage(StationCursor after, Fields orderBy, Sort.Direction direction, PageRequest pageable) {
+        if (after == null) {
+            return repository.findFirstPage(pageable);
+        }
+
+        var ascending = direction == Sort.Direction.ASC;
+        if (orderBy == Fields.NAME) {
+            return ascending
+                    ? repository.findPageAfterName(after.name(), after.id(), pageable)
+                    : repository.findPageBeforeName(after.name(), after.id(), pageable);
+        }
+
+        return ascending
+                ? repository.findPageAfterId(after.id(), pageable)
+                : repository.findPageBeforeId(after.id(), pageable);
+    }
+
+    private static StationCursor decodeCursor(String cursor, Fields field, Sort.Direction direction) {
+        StationCursor decoded;
+        try {
+            decoded = StationCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+
+        if ((field != null && field != decoded.field()) || (direction != null && direction != decoded.direction())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The cursor belongs to a different ordering");
+        }
 
+        return decoded;
     }
 
+    /*
+    No transaction here, a cache hit shouldn't take a connection out of the pool. The repository query runs in its own
+    read-only transaction on a miss.
+     */
     @Override
     public Station findById(Long id) {
         log.info("Getting station data with id={}", id);
-        var entity = repository.findById(id);
-        return mapper.toDto(entity.orElse(null));
+        var cached = stationCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        var station = repository.findStationById(id).orElse(null);
+        stationCache.put(station);
+        return station;
     }
 
     @Override
-    @Transactional
+    public Integer findVersionById(Long id) {
+        var cached = stationCache.get(id);
+        if (cached != null) {
+            return cached.version();
+        }
+
+        return repository.findVersionById(id).orElse(null);
+    }
+
+    @Override
+    public StationListVersion findListVersion() {
+        return new StationListVersion(changeLog.lastReserved());
+    }
+
+    /*
+    No transaction here, a coalesced update waits for its batch without holding a connection. The other updates are
+    written right away, in a transaction of their own.
+     */
+    @Override
     public Station updateStation(Station station) {
         /*
         This method is only called with validated input. So, a valid stationName is guaranteed.
@@ -65,11 +326,42 @@ public class StationServiceImpl implements StationService {
          */
         log.info("Updating station with data={}", station);
 
+        if (station.id() == null || station.version() == null) {
+            // Without an identifier and a version the station can't be compared, it is merged (or created) instead
+            return transactionTemplate.execute(status -> mergeStation(station));
+        }
+
+        if (updateCoalescer.isEnabled()) {
+            return updateCoalescer.update(station);
+        }
+        return transactionTemplate.execute(status -> writeStation(station));
+    }
+
+    private Station writeStation(Station station) {
+        if (repository.updateStation(station.id(), station.stationName(), station.version()) == 0) {
+            // Only a failed update pays for the second query telling the reason
+            if (repository.existsById(station.id())) {
+                log.error("Version mismatch while updating station id={}", station.id());
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "");
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Station not found");
+        }
+
+        var response = new Station(station.id(), station.stationName(), station.version() + 1);
+        changeLog.append(List.of(StationChange.written(response)));
+        eventPublisher.publishEvent(StationChangedEvent.updated(response));
+        return response;
+    }
+
+    private Station mergeStation(Station station) {
         var entity = mapper.toEntity(station);
 
         try {
             var responseEntity = repository.saveAndFlush(entity);
-            return mapper.toDto(responseEntity);
+            var response = mapper.toDto(responseEntity);
+            changeLog.append(List.of(StationChange.written(response)));
+            eventPublisher.publishEvent(StationChangedEvent.updated(response));
+            return response;
         } catch (OptimisticLockingFailureException e) {
             log.error("Version mismatch while updating station.", e);
             throw new ResponseStatusException(HttpStatus.CONFLICT, "", e);
@@ -77,8 +369,91 @@ public class StationServiceImpl implements StationService {
     }
 
     @Override
+    @Transactional
+    public List<BatchItemResult> updateStations(List<Station> stations) {
+        if (stations.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " stations can be updated at once");
+        }
+        log.info("Updating {} stations", stations.size());
+
+        var errors = new HashMap<Integer, String>();
+        var valid = new ArrayList<Station>(stations.size());
+        var ids = new HashSet<Long>();
+        for (int i = 0; i < stations.size(); i++) {
+            var station = stations.get(i);
+            if (station == null || StringUtils.isBlank(station.stationName())) {
+                errors.put(i, "stationName is missing");
+            } else if (station.id() == null || station.version() == null) {
+                errors.put(i, "id and version are required");
+            } else if (!ids.add(station.id())) {
+                errors.put(i, "The station is updated by an earlier item of the batch");
+            } else {
+                valid.add(station);
+            }
+        }
+
+        // One statement for the whole batch, the stations it didn't update either changed meanwhile or don't exist
+        var updated = new HashMap<Long, Station>();
+        var updatedStations = repository.updateAll(valid);
+        updatedStations.forEach(station -> updated.put(station.id(), station));
+        changeLog.append(updatedStations.stream().map(StationChange::written).toList());
+        ids.removeAll(updated.keySet());
+        var conflicting = ids.isEmpty() ? Set.<Long>of() : new HashSet<>(repository.findExistingIds(ids));
+
+        var results = new ArrayList<BatchItemResult>(stations.size());
+        for (int i = 0; i < stations.size(); i++) {
+            if (errors.containsKey(i)) {
+                results.add(new BatchItemResult(i, HttpStatus.BAD_REQUEST.value(), null, errors.get(i)));
+                continue;
+            }
+
+            var id = stations.get(i).id();
+            var station = updated.get(id);
+            if (station != null) {
+                results.add(new BatchItemResult(i, HttpStatus.OK.value(), station, null));
+                eventPublisher.publishEvent(StationChangedEvent.updated(station));
+            } else if (conflicting.contains(id)) {
+                results.add(new BatchItemResult(i, HttpStatus.CONFLICT.value(), null, "Version mismatch"));
+            } else {
+                results.add(new BatchItemResult(i, HttpStatus.NOT_FOUND.value(), null, "Station not found"));
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    @Transactional
     public void deleteStation(Long id) {
         log.info("Deleting station with id={}", id);
-        repository.deleteById(id);
+        if (repository.deleteStationById(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Station not found");
+        }
+        changeLog.append(List.of(StationChange.deleted(id)));
+        eventPublisher.publishEvent(StationChangedEvent.deleted(id));
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResult> deleteStations(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " stations can be deleted at once");
+        }
+        log.info("Deleting {} stations", ids.size());
+
+        var deletedIds = repository.deleteByIds(new LinkedHashSet<>(ids));
+        changeLog.append(deletedIds.stream().map(StationChange::deleted).toList());
+        var deleted = new HashSet<>(deletedIds);
+        deleted.forEach(id -> eventPublisher.publishEvent(StationChangedEvent.deleted(id)));
+
+        var results = new ArrayList<BatchItemResult>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            var id = ids.get(i);
+            results.add(deleted.contains(id)
+                    ? new BatchItemResult(i, HttpStatus.NO_CONTENT.value(), Station.builder().id(id).build(), null)
+                    : new BatchItemResult(i, HttpStatus.NOT_FOUND.value(), Station.builder().id(id).build(), "Station not found"));
+        }
+
+        return results;
     }
 }
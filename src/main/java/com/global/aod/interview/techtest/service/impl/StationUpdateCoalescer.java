@@ -0,0 +1,262 @@
+package com.global.aod.interview.techtest.service.impl;
+
+import com.global.aod.interview.techtest.configuration.WriteCoalescingProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.repository.StationChangeLog;
+import com.global.aod.interview.techtest.repository.StationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces the single station updates, enabled by {@code stations.write-coalescing.enabled}.
+ * <p>
+ * An update with an id and a version is queued under that pair instead of being written right away, and every
+ * {@code window} the queue is written by one transaction, with one {@link StationRepository#updateAll} statement for
+ * all the stations. When more updates are based on the same version of a station inside a window, only the last one is
+ * written, the earlier ones get 409 as if they had arrived right after it. The version check stays with the database,
+ * a stale version gets 409 just like without coalescing.
+ * <p>
+ * The callers wait for the commit, so an update that was answered is never lost. On shutdown new updates are refused
+ * and the queued ones are written before the database goes away.
+ * <p>
+ * {@code stations.write-coalescing.requests} counts the updates received and {@code stations.write-coalescing.writes}
+ * the ones sent to the database, {@code stations.write-coalescing.ratio} is the first divided by the second.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(WriteCoalescingProperties.class)
+public class StationUpdateCoalescer {
+
+    private final StationRepository repository;
+    private final StationChangeLog changeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteCoalescingProperties properties;
+    private final ScheduledExecutorService flusher;
+    private final Counter requests;
+    private final Counter writes;
+
+    // Lock striping is left to the map, writers of different stations don't wait for each other
+    private final Map<Key, Update> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean accepting = true;
+
+    @Autowired
+    public StationUpdateCoalescer(StationRepository repository, StationChangeLog changeLog,
+                                  ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                                  WriteCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this(repository, changeLog, eventPublisher, transactionTemplate, properties, meterRegistry,
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    var thread = new Thread(runnable, "station-write-coalescer");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    StationUpdateCoalescer(StationRepository repository, StationChangeLog changeLog,
+                           ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                           WriteCoalescingProperties properties, MeterRegistry meterRegistry,
+                           ScheduledExecutorService flusher) {
+        this.repository = repository;
+        this.changeLog = changeLog;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.flusher = flusher;
+        this.requests = Counter.builder("stations.write-coalescing.requests")
+                .description("Station updates received for coalescing").register(meterRegistry);
+        this.writes = Counter.builder("stations.write-coalescing.writes")
+                .description("Coalesced station updates sent to the database").register(meterRegistry);
+        Gauge.builder("stations.write-coalescing.ratio", this, coalescer -> coalescer.writes.count() == 0
+                        ? Double.NaN
+                        : coalescer.requests.count() / coalescer.writes.count())
+                .description("Station updates received per update written").register(meterRegistry);
+        Gauge.builder("stations.write-coalescing.pending", pending, Map::size)
+                .description("Station updates waiting to be written").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (isEnabled()) {
+            var windowMillis = properties.window().toMillis();
+            flusher.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        flusher.shutdown();
+        if (!flusher.awaitTermination(properties.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Coalesced station updates are still being written, writing the rest anyway");
+        }
+        // Whatever was queued after the last scheduled flush
+        flush();
+    }
+
+    /**
+     * Queues the update and waits until it is written.
+     *
+     * @param station a station with an id and a version
+     * @return the station with its new version
+     */
+    public Station update(Station station) {
+        if (!accepting) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down");
+        }
+
+        var key = new Key(station.id(), station.version());
+        var update = new Update(station.stationName(), new CompletableFuture<>());
+        var superseded = pending.put(key, update);
+        if (superseded != null) {
+            superseded.result.completeExceptionally(new ResponseStatusException(HttpStatus.CONFLICT, ""));
+        }
+        requests.increment();
+
+        return await(key, update);
+    }
+
+    /**
+     * Writes everything queued so far, called every {@code window} by the flusher thread.
+     */
+    void flush() {
+        // Taken one by one, an update queued meanwhile is either written now or left for the next flush
+        var updates = new LinkedHashMap<Key, Update>();
+        for (var key : pending.keySet()) {
+            var update = pending.remove(key);
+            if (update != null) {
+                updates.put(key, update);
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        Map<Key, HttpStatus> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> write(updates));
+        } catch (RuntimeException e) {
+            log.error("Writing {} coalesced station updates failed", updates.size(), e);
+            updates.values().forEach(update -> update.result.completeExceptionally(e));
+            return;
+        }
+
+        // Only answered after the commit
+        updates.forEach((key, update) -> {
+            var outcome = outcomes.get(key);
+            if (outcome == HttpStatus.OK) {
+                update.result.complete(new Station(key.id(), update.stationName(), key.version() + 1));
+            } else if (outcome == HttpStatus.CONFLICT) {
+                update.result.completeExceptionally(new ResponseStatusException(HttpStatus.CONFLICT, ""));
+            } else {
+                update.result.completeExceptionally(new ResponseStatusException(HttpStatus.NOT_FOUND, "Station not found"));
+            }
+        });
+    }
+
+    private Map<Key, HttpStatus> write(Map<Key, Update> updates) {
+        // updateAll takes a station once, the updates of a station based on different versions go in rounds
+        var rounds = new LinkedHashMap<Long, Queue<Key>>();
+        updates.keySet().forEach(key -> rounds.computeIfAbsent(key.id(), id -> new ArrayDeque<>()).add(key));
+
+        var outcomes = new HashMap<Key, HttpStatus>();
+        var written = new ArrayList<Station>();
+        var failed = new HashSet<Long>();
+        while (!rounds.isEmpty()) {
+            var round = rounds.values().stream()
+                    .map(Queue::poll)
+                    .map(key -> new Station(key.id(), updates.get(key).stationName(), key.version()))
+                    .toList();
+            writes.increment(round.size());
+
+            var updated = repository.updateAll(round);
+            written.addAll(updated);
+            for (var station : updated) {
+                // The other versions of the station were already stale when they were queued
+                var others = rounds.remove(station.id());
+                others.forEach(key -> outcomes.put(key, HttpStatus.CONFLICT));
+                outcomes.put(new Key(station.id(), station.version() - 1), HttpStatus.OK);
+            }
+            rounds.values().removeIf(Queue::isEmpty);
+            round.forEach(station -> failed.add(station.id()));
+        }
+
+        // Only the stations never written pay for the query telling a conflict from a missing station
+        var existing = new HashSet<Long>();
+        written.forEach(station -> existing.add(station.id()));
+        failed.removeAll(existing);
+        if (!failed.isEmpty()) {
+            existing.addAll(repository.findExistingIds(failed));
+        }
+        updates.keySet().stream()
+                .filter(key -> !outcomes.containsKey(key) && existing.contains(key.id()))
+                .forEach(key -> outcomes.put(key, HttpStatus.CONFLICT));
+
+        changeLog.append(written.stream().map(StationChange::written).toList());
+        written.forEach(station -> eventPublisher.publishEvent(StationChangedEvent.updated(station)));
+        return outcomes;
+    }
+
+    private Station await(Key key, Update update) {
+        try {
+            try {
+                return update.result.get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.remove(key, update)) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The update was not written in time", e);
+                }
+                // Already taken by a flush, its outcome is waited for whatever it takes
+                return update.result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while updating", e);
+        }
+    }
+
+    private record Key(long id, int version) {
+    }
+
+    private record Update(String stationName, CompletableFuture<Station> result) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.global.aod.interview.techtest.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Wraps the connections of the pool, so every statement is seen: the ones of Hibernate and the ones of the
+ * {@code JdbcTemplate} based repositories alike. Statements are counted, timed and their rows added up for the
+ * {@link StatementStatistics} of the current request, and a statement slower than the threshold is logged with its SQL.
+ * <p>
+ * Rows are the update counts of the writes and the rows read from the result sets.
+ */
+@Slf4j
+public class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final long slowThresholdNanos;
+
+    public InstrumentedDataSource(DataSource target, Duration slowThreshold) {
+        super(target);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /**
+     * Closes the pool with the application, Spring only sees this wrapper when it looks for a close method.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Runs one of the execute methods of a statement, inside the time measured for it. Benchmarks override it to add
+     * database latency while the connection is held.
+     */
+    protected Object execute(Statement statement, Method method, Object[] args) throws Throwable {
+        return invoke(statement, method, args);
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            var result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                // Plain statements get their SQL when executed
+                var sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return wrap(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private Statement wrap(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return proxy(type, (proxy, method, args) -> {
+            var statistics = StatementStatistics.current();
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                // A batch of plain statements has no single SQL
+                var sql = preparedSql != null ? preparedSql : args != null ? (String) args[0] : "batch";
+                var start = System.nanoTime();
+                var result = execute(statement, method, args);
+                var elapsed = System.nanoTime() - start;
+                if (elapsed >= slowThresholdNanos) {
+                    log.warn("Slow statement took {} ms: {}", elapsed / 1_000_000, sql);
+                }
+                if (statistics != null) {
+                    statistics.executed(sql, elapsed);
+                    statistics.rows(updateCount(result));
+                }
+                return result instanceof ResultSet resultSet && statistics != null ? wrap(resultSet, statistics) : result;
+            }
+
+            var result = invoke(statement, method, args);
+            if (result instanceof ResultSet resultSet && statistics != null && "getResultSet".equals(method.getName())) {
+                return wrap(resultSet, statistics);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrap(ResultSet resultSet, StatementStatistics statistics) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            var result = invoke(resultSet, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                statistics.rows(1);
+            }
+            return result;
+        });
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0);
+        }
+
+        var rows = 0L;
+        if (result instanceof int[] counts) {
+            for (var count : counts) {
+                // Batches may only tell that the statement succeeded, not the rows
+                rows += Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (var count : counts) {
+                rows += Math.max(count, 0);
+            }
+        }
+        return rows;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.global.aod.interview.techtest.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the read-only transactions to the read replicas, taking turns, everything else to the primary. A replica which
+ * can't give a connection is skipped, the read falls back to the primary.
+ * <p>
+ * The decision is made when the connection is taken, so it has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction managers take their
+ * connection before the transaction is marked read-only, the proxy only takes it at the first statement.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Map.copyOf(replicas);
+        this.replicaNames = List.copyOf(replicas.keySet());
+        setTargetDataSources(new HashMap<>(replicas));
+        // No lookup key means the primary
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaNames.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        return replicaNames.get(Math.floorMod(next.getAndIncrement(), replicaNames.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var replica = (String) determineCurrentLookupKey();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+
+        try {
+            return replicas.get(replica).getConnection();
+        } catch (SQLException e) {
+            log.warn("No connection from read replica {}, reading from the primary: {}", replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Other credentials are only known by the primary
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Closes the pools with the application.
+     */
+    @Override
+    public void close() throws Exception {
+        for (var dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.global.aod.interview.techtest.sql;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The statements sent to the database while one request is handled. They are collected by the
+ * {@link InstrumentedDataSource} on the thread of the request, and on the thread running the asynchronous part of the
+ * request, like the export. The work of other threads, like the change stream, isn't counted.
+ */
+public final class StatementStatistics {
+
+    private static final ThreadLocal<StatementStatistics> CURRENT = new ThreadLocal<>();
+
+    // Keyed by the SQL, the parameters of a prepared statement aren't part of it
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    static StatementStatistics begin() {
+        var statistics = new StatementStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Collects the statements of this thread into the statistics of a request started on another thread.
+     */
+    static void resume(StatementStatistics statistics) {
+        CURRENT.set(statistics);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the statistics of the request handled by this thread, {@code null} outside of a request
+     */
+    static StatementStatistics current() {
+        return CURRENT.get();
+    }
+
+    void executed(String sql, long nanos) {
+        statements++;
+        this.nanos += nanos;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    void rows(long rows) {
+        this.rows += rows;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public Duration time() {
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * @return the statements executed at least {@code threshold} times, with the number of their executions
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        return executions.entrySet().stream()
+                .filter(execution -> execution.getValue() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * @return the {@code Server-Timing} entry of the database, e.g. {@code db;dur=1.25;desc="2 statements, 10 rows"}
+     */
+    public String serverTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements, %d rows\"", nanos / 1_000_000.0, statements, rows);
+    }
+}
@@ -0,0 +1,231 @@
+package com.global.aod.interview.techtest.sql;
+
+import com.global.aod.interview.techtest.configuration.SqlInstrumentationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.Callable;
+
+/**
+ * Collects the {@link StatementStatistics} of every request. They are published as the
+ * {@code stations.request.statements} and {@code stations.request.rows} distributions, tagged by the endpoint, and sent
+ * in a {@code Server-Timing} header when {@code stations.sql.server-timing} is on. A statement executed
+ * {@code stations.sql.n-plus-one-threshold} times by one request is logged, and counted by
+ * {@code stations.request.n-plus-one}, it's most likely a query in a loop that should have been a single one.
+ * <p>
+ * The asynchronous part of a request, like the body of the export, collects its statements into the statistics of the
+ * request too, they are recorded once the asynchronous part completed. Such a response doesn't get the header, it's
+ * sent before the statements are.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class StatementStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final String STATISTICS_ATTRIBUTE = StatementStatisticsFilter.class.getName() + ".statistics";
+
+    private final SqlInstrumentationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The dispatch after the asynchronous part of a request records its statistics
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            var statistics = (StatementStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (statistics != null && !request.isAsyncStarted()) {
+                    record(request, statistics);
+                }
+            }
+            return;
+        }
+
+        var statistics = StatementStatistics.begin();
+        var timedResponse = properties.serverTiming() ? new ServerTimingResponse(request, response, statistics) : null;
+        request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(STATISTICS_ATTRIBUTE,
+                new StatisticsPropagatingInterceptor(statistics));
+        try {
+            filterChain.doFilter(request, timedResponse != null ? timedResponse : response);
+        } finally {
+            StatementStatistics.end();
+            // An asynchronous request is recorded by its async dispatch
+            if (!request.isAsyncStarted()) {
+                if (timedResponse != null) {
+                    // Responses without a body, like 204 or 304, are only committed after the filters
+                    timedResponse.addServerTiming();
+                }
+                record(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementStatistics statistics) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        var uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("stations.request.statements")
+                .tags("method", request.getMethod(), "uri", uri)
+                .description("Statements sent to the database by one request")
+                .register(meterRegistry)
+                .record(statistics.statements());
+        DistributionSummary.builder("stations.request.rows")
+                .tags("method", request.getMethod(), "uri", uri)
+                .description("Rows written or read by one request")
+                .register(meterRegistry)
+                .record(statistics.rows());
+
+        statistics.repeated(properties.nPlusOneThreshold()).forEach((sql, executions) -> {
+            log.warn("Likely N+1 select, {} {} executed the same statement {} times: {}", request.getMethod(), uri,
+                    executions, sql);
+            meterRegistry.counter("stations.request.n-plus-one", "method", request.getMethod(), "uri", uri).increment();
+        });
+    }
+
+    /**
+     * Collects the statements of the {@link Callable} running the asynchronous part of a request, like a
+     * {@link org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody}.
+     */
+    private record StatisticsPropagatingInterceptor(StatementStatistics statistics)
+            implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            StatementStatistics.resume(statistics);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            StatementStatistics.end();
+        }
+    }
+
+    /**
+     * Adds the header right before the body is written, by then the handler has sent its statements. A streamed body
+     * is written once the request is asynchronous, it goes without the header.
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final StatementStatistics statistics;
+        private ServletOutputStream outputStream;
+        private boolean added;
+
+        private ServerTimingResponse(HttpServletRequest request, HttpServletResponse response,
+                                     StatementStatistics statistics) {
+            super(response);
+            this.request = request;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            // Taken before the handler writes, the header is added by the first write
+            if (outputStream == null) {
+                outputStream = new ServerTimingOutputStream(this, super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        private void addServerTiming() {
+            if (!added && !isCommitted() && !request.isAsyncStarted()) {
+                added = true;
+                addHeader(SERVER_TIMING_HEADER, statistics.serverTiming());
+            }
+        }
+    }
+
+    private static final class ServerTimingOutputStream extends ServletOutputStream {
+
+        private final ServerTimingResponse response;
+        private final ServletOutputStream delegate;
+
+        private ServerTimingOutputStream(ServerTimingResponse response, ServletOutputStream delegate) {
+            this.response = response;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            response.addServerTiming();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            response.addServerTiming();
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            response.addServerTiming();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.addServerTiming();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.global.aod.interview.techtest.stream;
+
+import com.global.aod.interview.techtest.configuration.StationStreamProperties;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.repository.StationChangeLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the station changes to the subscribers of {@code GET /stations/stream}.
+ * <p>
+ * A single thread reads the change log, right after a local commit and every {@code poll-interval} for the writes of
+ * the other instances, and offers every change to the bounded queue of each subscriber. It never waits for a
+ * subscriber: one whose queue is full is disconnected, and resumes from the change log with {@code Last-Event-ID} when
+ * it reconnects. The queues are emptied by a small pool of sender threads, one task per subscriber at a time, so a slow
+ * connection only holds up itself.
+ * <p>
+ * The number of subscribers is published as {@code stations.stream.subscribers}, the disconnected slow ones are
+ * counted by {@code stations.stream.disconnects}.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(StationStreamProperties.class)
+public class StationChangeBroadcaster {
+
+    static final int PAGE_SIZE = 500;
+
+    // Queued like a change, so only the sender of the subscriber writes to its connection
+    private static final StationChange HEARTBEAT = new StationChange(-1, null, null, null, false);
+
+    private final StationChangeLog changeLog;
+    private final StationStreamProperties properties;
+    private final ScheduledExecutorService poller;
+    private final ExecutorService senders;
+    private final Counter slowDisconnects;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean pollScheduled = new AtomicBoolean();
+
+    // Only written by the poller thread
+    private volatile long cursor;
+
+    @Autowired
+    public StationChangeBroadcaster(StationChangeLog changeLog, StationStreamProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this(changeLog, properties, meterRegistry,
+                Executors.newSingleThreadScheduledExecutor(daemon("station-stream-poller")),
+                Executors.newFixedThreadPool(properties.senders(), daemon("station-stream-sender")));
+    }
+
+    StationChangeBroadcaster(StationChangeLog changeLog, StationStreamProperties properties, MeterRegistry meterRegistry,
+                             ScheduledExecutorService poller, ExecutorService senders) {
+        this.changeLog = changeLog;
+        this.properties = properties;
+        this.poller = poller;
+        this.senders = senders;
+        this.slowDisconnects = Counter.builder("stations.stream.disconnects").tag("reason", "slow")
+                .description("Subscribers disconnected because their buffer was full").register(meterRegistry);
+        Gauge.builder("stations.stream.subscribers", subscribers, List::size).register(meterRegistry);
+    }
+
+    /**
+     * @param lastEventId the sequence number of the last change the client received, {@code null} to receive the
+     *                    changes from now on
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(properties.timeout().toMillis()));
+    }
+
+    SseEmitter subscribe(Long lastEventId, SseEmitter emitter) {
+        if (subscribers.size() >= properties.maxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many subscribers");
+        }
+
+        var subscriber = new Subscriber(emitter, properties.bufferSize(), lastEventId != null ? lastEventId : cursor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // The changes missed while disconnected are read from the log first, live changes queue up meanwhile
+        subscriber.draining.set(true);
+        subscribers.add(subscriber);
+        senders.execute(() -> {
+            catchUp(subscriber);
+            drain(subscriber);
+        });
+        return emitter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        cursor = changeLog.lastSeq();
+        var pollMillis = properties.pollInterval().toMillis();
+        poller.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        var heartbeatMillis = properties.heartbeatInterval().toMillis();
+        poller.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        // One poll for a whole batch of changes
+        if (pollScheduled.compareAndSet(false, true)) {
+            poller.execute(() -> {
+                pollScheduled.set(false);
+                poll();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    void poll() {
+        try {
+            if (subscribers.isEmpty()) {
+                cursor = changeLog.lastSeq();
+                return;
+            }
+
+            List<StationChange> changes;
+            do {
+                changes = changeLog.findSince(cursor, PAGE_SIZE);
+                for (var change : changes) {
+                    subscribers.forEach(subscriber -> offer(subscriber, change));
+                    cursor = change.seq();
+                }
+            } while (changes.size() == PAGE_SIZE);
+        } catch (RuntimeException e) {
+            log.error("Reading the station changes failed, trying again with the next poll", e);
+        }
+    }
+
+    void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, HEARTBEAT));
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void offer(Subscriber subscriber, StationChange change) {
+        if (subscriber.queue.offer(change)) {
+            schedule(subscriber);
+        } else if (subscribers.remove(subscriber)) {
+            log.warn("Disconnecting slow station stream subscriber, {} changes are waiting", subscriber.queue.size());
+            slowDisconnects.increment();
+            // Completed by the sender, which may still be blocked writing to the connection
+            subscriber.closed.set(true);
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void catchUp(Subscriber subscriber) {
+        try {
+            List<StationChange> changes;
+            do {
+                changes = changeLog.findSince(subscriber.lastSent, PAGE_SIZE);
+                for (var change : changes) {
+                    subscriber.send(change);
+                }
+            } while (changes.size() == PAGE_SIZE && !subscriber.closed.get());
+        } catch (IOException | RuntimeException e) {
+            log.debug("Station stream subscriber is gone", e);
+            close(subscriber);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            for (var change = subscriber.queue.poll(); change != null && !subscriber.closed.get(); change = subscriber.queue.poll()) {
+                subscriber.send(change);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Station stream subscriber is gone", e);
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        if (subscriber.closed.get()) {
+            subscriber.emitter.complete();
+        } else if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscribers.remove(subscriber);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<StationChange> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // Only touched by the sender currently draining the subscriber, handed over through draining
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter, int bufferSize, long lastSent) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+            this.lastSent = lastSent;
+        }
+
+        private void send(StationChange change) throws IOException {
+            if (change == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (change.seq() > lastSent) {
+                // The log and the live queue overlap after a reconnect, what was sent already is skipped
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.seq()))
+                        .name(eventName(change))
+                        .data(change, MediaType.APPLICATION_JSON));
+                lastSent = change.seq();
+            }
+        }
+
+        private static String eventName(StationChange change) {
+            if (change.deleted()) {
+                return "deleted";
+            }
+            return change.version() == 0 ? "created" : "updated";
+        }
+    }
+}
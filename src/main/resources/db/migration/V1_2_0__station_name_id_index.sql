@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS station_name_id_idx ON station (name, id)
@@ -0,0 +1 @@
+ALTER SEQUENCE station_entity_seq INCREMENT BY 50
@@ -0,0 +1,19 @@
+-- Append-only log of the station writes, deleted stations are logged as tombstones without name and version
+CREATE TABLE IF NOT EXISTS station_change
+(
+    seq        BIGINT  NOT NULL PRIMARY KEY,
+    station_id BIGINT  NOT NULL,
+    name       TEXT,
+    version    INTEGER,
+    deleted    BOOLEAN NOT NULL
+);
+
+-- The last sequence number handed out. Writers lock the row until they commit, so the sequence numbers become
+-- visible in ascending order and a reader can't skip a change committed later with a lower number.
+CREATE TABLE IF NOT EXISTS station_change_counter
+(
+    id  INTEGER NOT NULL PRIMARY KEY,
+    seq BIGINT  NOT NULL
+);
+
+INSERT INTO station_change_counter (id, seq) VALUES (1, 0);
@@ -0,0 +1,12 @@
+-- The stations created by a POST with an Idempotency-Key, a retry with the same key is answered with the same station.
+-- Only used with stations.idempotency.persistent, rows older than stations.idempotency.ttl are deleted by the writers.
+CREATE TABLE IF NOT EXISTS station_idempotency_key
+(
+    idempotency_key VARCHAR(255)             NOT NULL PRIMARY KEY,
+    station_id      BIGINT                   NOT NULL,
+    name            TEXT                     NOT NULL,
+    version         INTEGER                  NOT NULL,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS station_idempotency_key_created_at_idx ON station_idempotency_key (created_at);
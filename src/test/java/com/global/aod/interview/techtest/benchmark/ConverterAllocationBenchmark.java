@@ -0,0 +1,56 @@
+package com.global.aod.interview.techtest.benchmark;
+
+import com.global.aod.interview.techtest.mapper.StringToFieldsMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortDirectionMapper;
+import com.global.aod.interview.techtest.mapper.StringToSortMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that converting valid {@code orderby} and {@code direction} values allocates nothing. Start it with
+ * {@code gradle benchmark}, {@code gradle jmh -PjmhIncludes=ConvertersBenchmark} reports the same with the gc profiler.
+ */
+@Tag("benchmark")
+class ConverterAllocationBenchmark {
+
+    private static final int ITERATIONS = 1_000_000;
+    private static final String[] FIELDS = {"id", "NAME", "Name"};
+    private static final String[] DIRECTIONS = {"asc", "DESC", "Desc"};
+    private static final String[] SORTS = {"name,-id", "-name", "id"};
+
+    private final StringToFieldsMapper fieldsMapper = new StringToFieldsMapper();
+    private final StringToSortDirectionMapper directionMapper = new StringToSortDirectionMapper();
+    private final StringToSortMapper sortMapper = new StringToSortMapper();
+
+    @Test
+    @DisplayName("Valid values are converted without allocating")
+    void shouldNotAllocateOnTheValidPath() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var threadId = Thread.currentThread().getId();
+
+        // Warm up, so the compiled code is measured
+        var hashes = convertAll();
+
+        var before = threads.getThreadAllocatedBytes(threadId);
+        hashes += convertAll();
+        var allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        System.out.printf("Converting %d valid values allocated %d bytes (%d)%n", ITERATIONS * 3L, allocated, hashes);
+        assertThat(allocated).isZero();
+    }
+
+    private long convertAll() {
+        long hashes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            hashes += fieldsMapper.convert(FIELDS[i % FIELDS.length]).ordinal();
+            hashes += directionMapper.convert(DIRECTIONS[i % DIRECTIONS.length]).ordinal();
+            hashes += System.identityHashCode(sortMapper.convert(SORTS[i % SORTS.length]));
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.global.aod.interview.techtest.benchmark;
+
+import com.global.aod.interview.techtest.TechTestApplication;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.service.StationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares creating stations one request at a time with the batch endpoint, before and after pooled identifiers and
+ * JDBC batching. The before run starts a second application with the {@code benchmark-baseline} profile, which asks
+ * the sequence for every id and sends every insert on its own. It is not part of the normal test run, start it with
+ * {@code gradle benchmark}. It uses H2 by default, add for example
+ * {@code -Dspring.datasource.url=jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true} to measure
+ * against Postgres.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class StationBatchInsertBenchmark {
+
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 5_000);
+    private static final int WARM_UP_STATIONS = 500;
+
+    @Autowired
+    private StationService stationService;
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Inserts per second, one transaction per station and one batch, before and after")
+    void shouldInsertFasterInBatch() {
+        var stations = IntStream.range(0, STATIONS)
+                .mapToObj(i -> Station.builder().stationName("Station " + i).build())
+                .toList();
+
+        // Same database, the ids of both runs come from the same sequence without overlapping
+        Rates before;
+        try (var baseline = new SpringApplicationBuilder(TechTestApplication.class)
+                .profiles("test", "benchmark-baseline")
+                .web(WebApplicationType.NONE)
+                .run()) {
+            before = measure(baseline.getBean(StationService.class), stations);
+        }
+        var after = measure(stationService, stations);
+
+        System.out.printf("Created %d stations%n", STATIONS);
+        System.out.printf("  before, nextval per insert, no JDBC batching: one by one %.0f inserts/sec, batch %.0f inserts/sec%n",
+                before.single(), before.batch());
+        System.out.printf("  after, pooled ids, JDBC batches:             one by one %.0f inserts/sec, batch %.0f inserts/sec%n",
+                after.single(), after.batch());
+        assertThat(stationService.findAllStations(null)).hasSize(2 * (STATIONS * 2 + WARM_UP_STATIONS * 2));
+    }
+
+    private static Rates measure(StationService stationService, List<Station> stations) {
+        // Warm up both paths, so the JIT and the connection pool don't distort the first measurement
+        stations.subList(0, WARM_UP_STATIONS).forEach(stationService::createStation);
+        stationService.createStations(stations.subList(0, WARM_UP_STATIONS));
+
+        var single = rate(() -> stations.forEach(stationService::createStation));
+        var batch = rate(() -> stationService.createStations(stations));
+        return new Rates(single, batch);
+    }
+
+    private static double rate(Runnable inserts) {
+        var start = System.nanoTime();
+        inserts.run();
+        return STATIONS / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private record Rates(double single, double batch) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.global.aod.interview.techtest.benchmark;
+
+import com.global.aod.interview.techtest.mapper.StationMapper;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.repository.StationRepository;
+import com.global.aod.interview.techtest.service.StationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the bytes allocated by one list request on the entity path (load managed entities, then copy them with
+ * the mapper) and on the projection path (select straight into the Station record). Start it with
+ * {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class StationReadAllocationBenchmark {
+
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 1_000);
+    private static final int ITERATIONS = 200;
+    private static final Sort SORT = Sort.by(Sort.Direction.ASC, "name");
+
+    @Autowired
+    private StationService stationService;
+
+    @Autowired
+    private StationRepository repository;
+
+    @Autowired
+    private StationMapper mapper;
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Allocations per request, entity path and projection path")
+    void shouldAllocateLessWithProjections() {
+        stationService.createStations(IntStream.range(0, STATIONS)
+                .mapToObj(i -> Station.builder().stationName("Station " + i).build())
+                .toList());
+
+        Supplier<List<Station>> entityPath = () -> repository.findAll(SORT).stream().map(mapper::toDto).toList();
+        Supplier<List<Station>> projectionPath = () -> repository.findAllStations(SORT);
+        assertThat(projectionPath.get()).isEqualTo(entityPath.get());
+
+        var entityBytes = allocatedBytesPerCall(entityPath);
+        var projectionBytes = allocatedBytesPerCall(projectionPath);
+
+        System.out.printf("Reading %d stations: entity path %d bytes/request, projection path %d bytes/request%n",
+                STATIONS, entityBytes, projectionBytes);
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    private static long allocatedBytesPerCall(Supplier<List<Station>> path) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var threadId = Thread.currentThread().getId();
+
+        // Warm up, so allocations of class loading and query plan caching are not counted
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.get();
+        }
+
+        var before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.get();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+}
@@ -0,0 +1,148 @@
+package com.global.aod.interview.techtest.benchmark;
+
+import com.global.aod.interview.techtest.TechTestApplication;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.service.StationService;
+import com.global.aod.interview.techtest.sql.InstrumentedDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Sends the same load to the application twice, first with the default Tomcat pool of platform threads, then with
+ * the {@code virtual-threads} profile, and prints throughput and latency percentiles of both runs. Every statement is
+ * slowed down by {@code benchmark.latency-ms} while it holds its connection, like a Postgres latency spike would, so
+ * the requests contend for the pool as well as for the threads. Start it with {@code gradle benchmark} on Java 21, it
+ * is skipped on older versions.
+ */
+@Tag("benchmark")
+class VirtualThreadsLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int WARM_UP_REQUESTS = 2_000;
+    private static final long LATENCY_MS = Long.getLong("benchmark.latency-ms", 20);
+
+    private record Result(double throughput, double p50, double p99, int failures) {
+    }
+
+    @Test
+    @DisplayName("Throughput and latency, platform threads and virtual threads")
+    void shouldCompareThreadingModels() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+
+        var platform = run("test");
+        var virtual = run("test", "virtual-threads");
+
+        System.out.printf("%d requests, %d concurrent clients, %d ms database latency%n", REQUESTS, CONCURRENCY, LATENCY_MS);
+        System.out.printf("platform threads: %.0f requests/sec, p50 %.1f ms, p99 %.1f ms%n",
+                platform.throughput(), platform.p50(), platform.p99());
+        System.out.printf("virtual threads:  %.0f requests/sec, p50 %.1f ms, p99 %.1f ms%n",
+                virtual.throughput(), virtual.p50(), virtual.p99());
+
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+    }
+
+    private static Result run(String... profiles) throws Exception {
+        try (var context = new SpringApplicationBuilder(TechTestApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new SlowDatabasePostProcessor()))
+                .run()) {
+            context.getBean(StationService.class).createStations(IntStream.range(0, 100)
+                    .mapToObj(i -> Station.builder().stationName("Station " + i).build())
+                    .toList());
+
+            var port = context.getEnvironment().getRequiredProperty("local.server.port");
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/stations?limit=10")).build();
+            var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            load(client, request, WARM_UP_REQUESTS);
+            return load(client, request, REQUESTS);
+        }
+    }
+
+    private static Result load(HttpClient client, HttpRequest request, int requests) throws InterruptedException {
+        var latencies = new long[requests];
+        var next = new AtomicInteger();
+        var failures = new AtomicInteger();
+        var clients = Executors.newFixedThreadPool(CONCURRENCY);
+
+        var start = System.nanoTime();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            clients.execute(() -> {
+                for (int n = next.getAndIncrement(); n < requests; n = next.getAndIncrement()) {
+                    var sent = System.nanoTime();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[n] = System.nanoTime() - sent;
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(10, TimeUnit.MINUTES);
+        var elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(requests / (elapsed / 1_000_000_000.0), percentile(latencies, 0.50),
+                percentile(latencies, 0.99), failures.get());
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        return sortedNanos[(int) Math.ceil(percentile * sortedNanos.length) - 1] / 1_000_000.0;
+    }
+
+    /**
+     * Wraps the pool, so every statement waits before it runs. The wait is inside the statement, the connection is
+     * checked out whether or not the caller runs in a transaction.
+     */
+    private static class SlowDatabasePostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)
+                    ? new SlowDataSource(dataSource)
+                    : bean;
+        }
+    }
+
+    private static class SlowDataSource extends InstrumentedDataSource {
+
+        SlowDataSource(DataSource target) {
+            // Only statements much slower than the added latency are logged
+            super(target, Duration.ofMillis(LATENCY_MS * 10));
+        }
+
+        @Override
+        protected Object execute(Statement statement, Method method, Object[] args) throws Throwable {
+            Thread.sleep(LATENCY_MS);
+            return super.execute(statement, method, args);
+        }
+    }
+}
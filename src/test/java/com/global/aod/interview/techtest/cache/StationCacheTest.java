@@ -0,0 +1,129 @@
+package com.global.aod.interview.techtest.cache;
+
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StationCacheTest {
+
+    private static final String STATION_NAME = "Heart FM";
+
+    private StationCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new StationCache(new CaffeineCacheManager(StationCache.CACHE_NAME));
+    }
+
+    @Test
+    @DisplayName("get - Unknown station is a miss")
+    void shouldMissUnknownStation() {
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("put - Newer version replaces the cached one, older version is ignored")
+    void shouldKeepNewestVersion() {
+        var version1 = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+        var version2 = Station.builder().stationName(STATION_NAME + " 2").id(1L).version(2).build();
+
+        cache.put(version1);
+        assertThat(cache.get(1L)).isEqualTo(version1);
+
+        cache.put(version2);
+        cache.put(version1);
+        assertThat(cache.get(1L)).isEqualTo(version2);
+    }
+
+    @Test
+    @DisplayName("put - Missing station is not cached")
+    void shouldIgnoreMissingStation() {
+        cache.put(null);
+        cache.put(Station.builder().id(1L).build());
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("evict - Deleted station can't be brought back by a slow reader")
+    void shouldNotCacheDeletedStation() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+        cache.put(station);
+
+        cache.evict(1L);
+        cache.put(station);
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("onStationChanged - Updates are cached, deletions evicted")
+    void shouldFollowStationChanges() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+
+        cache.onStationChanged(StationChangedEvent.updated(station));
+        assertThat(cache.get(1L)).isEqualTo(station);
+
+        cache.onStationChanged(StationChangedEvent.deleted(1L));
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("onStationInvalidated - Only stations older than the written version are dropped")
+    void shouldDropOutdatedStations() {
+        var station1 = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+        var station2 = Station.builder().stationName(STATION_NAME).id(2L).version(1).build();
+        cache.put(station1);
+        cache.put(station2);
+
+        cache.onStationInvalidated(StationInvalidatedEvent.written(1L, 1));
+        cache.onStationInvalidated(StationInvalidatedEvent.written(2L, 2));
+
+        assertThat(cache.get(1L)).isEqualTo(station1);
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("onStationInvalidated - A reader which loaded the older version before the invalidation can't cache it")
+    void shouldNotCacheVersionOlderThanInvalidation() {
+        var version1 = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+        var version2 = Station.builder().stationName(STATION_NAME + " 2").id(1L).version(2).build();
+        cache.put(version1);
+
+        // Version 1 was read from a lagging replica while another instance wrote version 2
+        cache.onStationInvalidated(StationInvalidatedEvent.written(1L, 2));
+        cache.put(version1);
+        assertThat(cache.get(1L)).isNull();
+
+        // The same for a station which wasn't cached yet
+        cache.onStationInvalidated(StationInvalidatedEvent.written(2L, 2));
+        cache.put(Station.builder().stationName(STATION_NAME).id(2L).version(1).build());
+        assertThat(cache.get(2L)).isNull();
+
+        cache.put(version2);
+        assertThat(cache.get(1L)).isEqualTo(version2);
+    }
+
+    @Test
+    @DisplayName("onStationInvalidated - Deleted station is evicted, unknown changes drop everything")
+    void shouldDropDeletedAndAllStations() {
+        var station1 = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+        var station2 = Station.builder().stationName(STATION_NAME).id(2L).version(1).build();
+        cache.put(station1);
+        cache.put(station2);
+
+        cache.onStationInvalidated(StationInvalidatedEvent.deleted(1L));
+        cache.put(station1);
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isEqualTo(station2);
+
+        cache.onStationInvalidated(StationInvalidatedEvent.all());
+        assertThat(cache.get(2L)).isNull();
+    }
+}
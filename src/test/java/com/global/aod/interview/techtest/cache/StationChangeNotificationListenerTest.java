@@ -0,0 +1,104 @@
+package com.global.aod.interview.techtest.cache;
+
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StationChangeNotificationListenerTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private ApplicationEventPublisher mockEventPublisher;
+
+    @Mock
+    private EntityManagerFactory mockEntityManagerFactory;
+
+    @Mock
+    private Cache mockCache;
+
+    @Mock
+    private org.hibernate.Cache mockSecondLevelCache;
+
+    private StationChangeNotificationListener listener;
+
+    @BeforeEach
+    public void setup() {
+        when(mockEntityManagerFactory.getCache()).thenReturn(mockCache);
+        when(mockCache.unwrap(org.hibernate.Cache.class)).thenReturn(mockSecondLevelCache);
+        listener = new StationChangeNotificationListener(() -> mockConnection, mockEventPublisher, mockEntityManagerFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    @DisplayName("onNotification - Written station is invalidated with its version")
+    void shouldInvalidateWrittenStation() {
+        listener.onNotification("U:7:3");
+
+        verify(mockSecondLevelCache).evictEntityData(StationEntity.class, 7L);
+        verify(mockEventPublisher).publishEvent(StationInvalidatedEvent.written(7L, 3));
+    }
+
+    @Test
+    @DisplayName("onNotification - Deleted station is invalidated")
+    void shouldInvalidateDeletedStation() {
+        listener.onNotification("D:7:3");
+
+        verify(mockEventPublisher).publishEvent(StationInvalidatedEvent.deleted(7L));
+    }
+
+    @Test
+    @DisplayName("onNotification - Malformed payload is ignored")
+    void shouldIgnoreMalformedPayload() {
+        listener.onNotification("U:7");
+
+        verifyNoInteractions(mockEventPublisher, mockSecondLevelCache);
+    }
+
+    @Test
+    @DisplayName("start - Notifications of the channel are received")
+    void shouldListenToChannel() throws Exception {
+        var statement = mock(Statement.class);
+        var pgConnection = mock(PGConnection.class);
+        var notification = mock(PGNotification.class);
+        when(mockConnection.createStatement()).thenReturn(statement);
+        when(mockConnection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(notification.getParameter()).thenReturn("I:8:0");
+        lenient().when(pgConnection.getNotifications(anyInt()))
+                .thenReturn(new PGNotification[]{notification})
+                .thenReturn(null);
+
+        listener.start();
+
+        verify(statement, timeout(1000)).execute("LISTEN " + StationChangeNotificationListener.CHANNEL);
+        verify(mockEventPublisher, timeout(1000)).publishEvent(StationInvalidatedEvent.written(8L, 0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.global.aod.interview.techtest.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.global.aod.interview.techtest.configuration.StationListCacheProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationList;
+import com.global.aod.interview.techtest.model.StationListVersion;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StationListResponseCacheTest {
+
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Station STATION = new Station(1L, "Heart UK", 0);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Supplier<StationList> loader(long version) {
+        return () -> {
+            loads.incrementAndGet();
+            return new StationList(new StationListVersion(version), List.of(STATION));
+        };
+    }
+
+    private StationListResponseCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new StationListResponseCache(new ObjectMapper(), new StationListCacheProperties(10, DataSize.ofBytes(1)));
+    }
+
+    @Test
+    @DisplayName("get - The same list version is rendered once, another one again")
+    void shouldRenderEveryListVersionOnce() {
+        var first = cache.get(BY_ID, new StationListVersion(1L), loader(1L));
+        var cached = cache.get(BY_ID, new StationListVersion(1L), loader(1L));
+        var changed = cache.get(BY_ID, new StationListVersion(2L), loader(2L));
+
+        assertThat(cached).isSameAs(first);
+        assertThat(changed).isNotSameAs(first);
+        assertThat(changed.version()).isEqualTo(new StationListVersion(2L));
+        assertThat(changed.gzipped()).isNotNull();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("get - Tagged with the version read with the stations, kept while the current version is lower")
+    void shouldTagResponseWithLoadedVersion() {
+        var loaded = cache.get(BY_ID, new StationListVersion(1L), loader(3L));
+        var lagging = cache.get(BY_ID, new StationListVersion(2L), loader(2L));
+        var current = cache.get(BY_ID, new StationListVersion(3L), loader(3L));
+
+        assertThat(loaded.version()).isEqualTo(new StationListVersion(3L));
+        assertThat(lagging).isSameAs(loaded);
+        assertThat(current).isSameAs(loaded);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("onStationChanged - Every response is dropped")
+    void shouldDropResponsesOnWrite() {
+        cache.get(BY_ID, new StationListVersion(1L), loader(1L));
+        cache.onStationChanged(StationChangedEvent.updated(STATION));
+        cache.get(BY_ID, new StationListVersion(1L), loader(1L));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("get - No response without stations")
+    void shouldNotCacheEmptyList() {
+        assertThat(cache.get(BY_ID, new StationListVersion(0L), () -> new StationList(new StationListVersion(0L), List.of()))).isNull();
+    }
+}
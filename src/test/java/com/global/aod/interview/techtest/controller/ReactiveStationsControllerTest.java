@@ -0,0 +1,110 @@
+package com.global.aod.interview.techtest.controller;
+
+import com.global.aod.interview.techtest.contoller.ReactiveStationsController;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.service.ReactiveStationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveStationsController.class)
+@ActiveProfiles("reactive")
+class ReactiveStationsControllerTest {
+
+    private static final String STATION_NAME = "Heart FM";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveStationService stationService;
+
+    @Test
+    @DisplayName("CreateStation - Input validation is failing")
+    void shouldFailValidationWhenAddingNewStation() {
+        webTestClient.post().uri("/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Station.builder().build())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(stationService);
+    }
+
+    @Test
+    @DisplayName("CreateStation - Success")
+    void shouldAddNewStation() {
+        var response = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        when(stationService.createStation(any(Station.class))).thenReturn(Mono.just(response));
+
+        webTestClient.post().uri("/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Station.builder().stationName(STATION_NAME).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().value("Location", location -> location.endsWith("/stations/1"))
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.stationName").isEqualTo(STATION_NAME);
+    }
+
+    @Test
+    @DisplayName("FindAllStations - Stations are streamed as newline delimited JSON")
+    void shouldStreamStations() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        when(stationService.findAllStations(Sort.by(Sort.Direction.DESC, "name"))).thenReturn(Flux.just(station, station));
+
+        webTestClient.get().uri("/stations?orderby=name&direction=desc")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Station.class).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("FindById - Not found")
+    void shouldNotFindStation() {
+        when(stationService.findById(1L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/stations/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("UpdateStation - Version mismatch")
+    void shouldFailUpdateOnVersionMismatch() {
+        when(stationService.updateStation(any(Station.class)))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT)));
+
+        webTestClient.put().uri("/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Station(1L, STATION_NAME, 0))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("DeleteStation - No content")
+    void shouldDeleteStation() {
+        when(stationService.deleteStation(1L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/stations/1")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
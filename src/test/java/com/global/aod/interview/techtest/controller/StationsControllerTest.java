@@ -1,43 +1,84 @@
 package com.global.aod.interview.techtest.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.global.aod.interview.techtest.cache.StationListResponseCache;
 import com.global.aod.interview.techtest.contoller.StationsController;
+import com.global.aod.interview.techtest.model.BatchItemResult;
+import com.global.aod.interview.techtest.model.Fields;
 import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.StationList;
+import com.global.aod.interview.techtest.model.StationListVersion;
+import com.global.aod.interview.techtest.model.StationPage;
 import com.global.aod.interview.techtest.service.StationService;
+import com.global.aod.interview.techtest.stream.StationChangeBroadcaster;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 
 import static com.global.aod.interview.techtest.utils.JsonUtils.asJsonString;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(StationsController.class)
+@Import(StationListResponseCache.class)
 class StationsControllerTest {
 
     private static final String STATION_NAME = "Heart FM";
+    private static final StationListVersion LIST_VERSION = new StationListVersion(3L);
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StationListResponseCache listResponses;
+
     @MockBean
     private StationService stationService;
 
+    @MockBean
+    private StationChangeBroadcaster changeBroadcaster;
+
     @BeforeEach
     public void setup() {
         reset(stationService);
+        listResponses.invalidateAll();
     }
 
     @Test
@@ -74,25 +115,180 @@ class StationsControllerTest {
                 .andExpect(jsonPath("$.stationName").value(STATION_NAME));
     }
 
+    @Test
+    @DisplayName("CreateStation - The Idempotency-Key is passed on, a retry gets the same Location")
+    void shouldAddNewStationWithIdempotencyKey() throws Exception {
+        var payload = Station.builder().stationName(STATION_NAME).build();
+        var response = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.createStation(payload, "retry-1")).thenReturn(response);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(MockMvcRequestBuilders
+                            .post("/stations")
+                            .header(StationsController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                            .content(asJsonString(payload))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Location", "http://localhost/stations/1"))
+                    .andExpect(jsonPath("$.id").value("1"));
+        }
+        verify(stationService, never()).createStation(any(Station.class));
+    }
+
+    @Test
+    @DisplayName("CreateStations - Result of every item is returned")
+    void shouldAddBatchOfStations() throws Exception {
+        var payload = List.of(Station.builder().stationName(STATION_NAME).build(), Station.builder().build());
+        var created = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.createStations(payload)).thenReturn(List.of(
+                new BatchItemResult(0, 201, created, null),
+                new BatchItemResult(1, 400, null, "stationName is missing")));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/stations/batch")
+                        .content(asJsonString(payload))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].station.id").value(1))
+                .andExpect(jsonPath("$[1].status").value(400));
+    }
+
     @Test
     @DisplayName("FindAllStations - Reply with a list of stations")
     void shouldReturnAListOfStations() throws Exception {
         var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
 
-        when(stationService.findAllStations(null, null)).thenReturn(List.of(station, station, station));
+        when(stationService.findListVersion()).thenReturn(LIST_VERSION);
+        when(stationService.findStationList(Sort.by("id"))).thenReturn(new StationList(LIST_VERSION, List.of(station, station, station)));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/stations")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"list-3-ID-ASC\""))
                 .andExpect(jsonPath("$.length()").value(3));
     }
 
+    @Test
+    @DisplayName("FindAllStations - Large list is sent gzip compressed, and rendered only once")
+    void shouldReturnCompressedListOfStations() throws Exception {
+        var stations = LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> Station.builder().stationName(STATION_NAME).id(id).version(0).build())
+                .toList();
+
+        when(stationService.findListVersion()).thenReturn(LIST_VERSION);
+        when(stationService.findStationList(Sort.by("id"))).thenReturn(new StationList(LIST_VERSION, stations));
+
+        for (int i = 0; i < 2; i++) {
+            var body = mockMvc.perform(MockMvcRequestBuilders
+                            .get("/stations")
+                            .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"list-3-ID-ASC\""))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            try (var json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertThat(objectMapper.readTree(json)).isEqualTo(objectMapper.valueToTree(stations));
+            }
+        }
+
+        verify(stationService, times(1)).findStationList(Sort.by("id"));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - A write of another instance raises the list version, the list is read again")
+    void shouldRenderListAgainAfterRemoteWrite() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.findListVersion()).thenReturn(LIST_VERSION, new StationListVersion(4L));
+        when(stationService.findStationList(Sort.by("id"))).thenReturn(new StationList(LIST_VERSION, List.of(station)),
+                new StationList(new StationListVersion(4L), List.of(station, station)));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"list-4-ID-ASC\""))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        verify(stationService, times(2)).findStationList(Sort.by("id"));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - Tagged with the version read with the list, a lower version later doesn't read it again")
+    void shouldTagListWithVersionReadTogether() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        // A replica ahead of the one answering the version
+        when(stationService.findListVersion()).thenReturn(LIST_VERSION, new StationListVersion(4L));
+        when(stationService.findStationList(Sort.by("id"))).thenReturn(new StationList(new StationListVersion(5L), List.of(station)));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders
+                            .get("/stations")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"list-5-ID-ASC\""))
+                    .andExpect(jsonPath("$.length()").value(1));
+        }
+
+        verify(stationService, times(1)).findStationList(Sort.by("id"));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - List is sent uncompressed to clients refusing gzip")
+    void shouldReturnUncompressedListOfStations() throws Exception {
+        var stations = LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> Station.builder().stationName(STATION_NAME).id(id).version(0).build())
+                .toList();
+
+        when(stationService.findListVersion()).thenReturn(LIST_VERSION);
+        when(stationService.findStationList(Sort.by("id"))).thenReturn(new StationList(LIST_VERSION, stations));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"list-3-ID-ASC\""))
+                .andExpect(jsonPath("$.length()").value(100));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - Not modified when the list has the same tag")
+    void shouldReturnNotModifiedListOfStations() throws Exception {
+        when(stationService.findListVersion()).thenReturn(LIST_VERSION);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations?orderby=name")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"list-3-NAME-ASC\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verify(stationService, never()).findStationList(any());
+    }
+
     @Test
     @DisplayName("FindAllStations - No content when no stations has been persisted")
     void shouldReturnEmptyListOfStations() throws Exception {
 
-        when(stationService.findAllStations(null, null)).thenReturn(List.of());
+        when(stationService.findListVersion()).thenReturn(new StationListVersion(0L));
+        when(stationService.findStationList(Sort.by("id"))).thenReturn(new StationList(new StationListVersion(0L), List.of()));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/stations")
@@ -100,6 +296,198 @@ class StationsControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("FindAllStations - Reply with a page of stations and the next cursor")
+    void shouldReturnAPageOfStations() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.findStationsPage(Fields.NAME, Sort.Direction.DESC, 1, null))
+                .thenReturn(new StationPage(List.of(station), "next"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations?orderby=name&direction=desc&limit=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(StationsController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - Last page has no cursor")
+    void shouldReturnTheLastPageOfStations() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.findStationsPage(null, null, null, "next"))
+                .thenReturn(new StationPage(List.of(station), null));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations?cursor=next")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(StationsController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - Ordered by several fields")
+    void shouldReturnStationsOrderedBySeveralFields() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.findListVersion()).thenReturn(LIST_VERSION);
+        when(stationService.findStationList(Sort.by(Sort.Order.asc("name"), Sort.Order.desc("id"))))
+                .thenReturn(new StationList(LIST_VERSION, List.of(station, station, station)));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations?orderby=name,-id")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"list-3-NAME-ASC,ID-DESC\""))
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - Page ordered by a descending field")
+    void shouldReturnAPageOrderedByDescendingField() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.findStationsPage(Fields.NAME, Sort.Direction.DESC, 1, null))
+                .thenReturn(new StationPage(List.of(station), null));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations?orderby=-name&limit=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("FindAllStations - Pages can't be ordered by several fields")
+    void shouldRejectAPageOrderedBySeveralFields() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations?orderby=name,-id&limit=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(stationService);
+    }
+
+    @Test
+    @DisplayName("FindChanges - Reply with the changes after the watermark")
+    void shouldReturnChanges() throws Exception {
+        when(stationService.findChanges(5L, null)).thenReturn(List.of(
+                new StationChange(6L, 1L, STATION_NAME, 1, false),
+                new StationChange(7L, 2L, null, null, true)));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/changes")
+                        .param("since", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].seq").value(6))
+                .andExpect(jsonPath("$[0].stationName").value(STATION_NAME))
+                .andExpect(jsonPath("$[1].deleted").value(true));
+    }
+
+    @Test
+    @DisplayName("FindChanges - No content when nothing changed")
+    void shouldReturnNoContentWithoutChanges() throws Exception {
+        when(stationService.findChanges(0L, null)).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/changes"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("StreamChanges - Subscription resumes from Last-Event-ID")
+    void shouldSubscribeFromLastEventId() throws Exception {
+        when(changeBroadcaster.subscribe(5L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/stream")
+                        .header("Last-Event-ID", "5")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(changeBroadcaster).subscribe(5L);
+    }
+
+    @Test
+    @DisplayName("StreamChanges - Invalid Last-Event-ID is rejected")
+    void shouldRejectInvalidLastEventId() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/stream")
+                        .header("Last-Event-ID", "abc")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(changeBroadcaster);
+    }
+
+    @Test
+    @DisplayName("SearchStations - Reply with the matching stations")
+    void shouldSearchStations() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.searchStations("heart", 5)).thenReturn(List.of(station));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/search?q=heart&limit=5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].stationName").value(STATION_NAME));
+    }
+
+    @Test
+    @DisplayName("SearchStations - No content when nothing matches")
+    void shouldFindNoStations() throws Exception {
+        when(stationService.searchStations("nothing", null)).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/search?q=nothing")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("AutocompleteStations - Reply with the stations starting with the prefix")
+    void shouldAutocompleteStations() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(stationService.autocompleteStations("hea", null)).thenReturn(List.of(station));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/autocomplete?prefix=hea")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("ExportStations - Stations are streamed as newline delimited JSON")
+    @SuppressWarnings("unchecked")
+    void shouldExportStations() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        doAnswer(invocation -> {
+            Consumer<Station> consumer = invocation.getArgument(1);
+            consumer.accept(station);
+            consumer.accept(station);
+            return null;
+        }).when(stationService).exportStations(eq(Sort.by("name")), any(Consumer.class));
+
+        var result = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/export?orderby=name")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var line = asJsonString(station) + "\n";
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(line + line));
+    }
+
     @Test
     @DisplayName("FindById - Station found")
     void shouldReturnAStation() throws Exception {
@@ -111,10 +499,43 @@ class StationsControllerTest {
                         .get("/stations/1")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""))
                 .andExpect(jsonPath("$.id").value("1"))
                 .andExpect(jsonPath("$.stationName").value(STATION_NAME));
     }
 
+    @Test
+    @DisplayName("FindById - Not modified, the station is not loaded")
+    void shouldReturnNotModifiedStation() throws Exception {
+        when(stationService.findVersionById(1L)).thenReturn(2);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-2\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-2\""));
+
+        verify(stationService, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("FindById - Out of date tag, the station is sent")
+    void shouldReturnModifiedStation() throws Exception {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(3).build();
+
+        when(stationService.findVersionById(1L)).thenReturn(3);
+        when(stationService.findById(1L)).thenReturn(station);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/stations/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-2\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
     @Test
     @DisplayName("FindById - Station not found")
     void shouldNotFindStation() throws Exception {
@@ -160,6 +581,56 @@ class StationsControllerTest {
                 .andExpect(jsonPath("$.stationName").value(STATION_NAME));
     }
 
+    @Test
+    @DisplayName("UpdateStation - Version is taken from If-Match")
+    void shouldUpdateStationWithIfMatch() throws Exception {
+        var payload = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        var response = Station.builder().stationName(STATION_NAME).id(1L).version(3).build();
+
+        when(stationService.updateStation(new Station(1L, STATION_NAME, 2))).thenReturn(response);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/stations")
+                        .header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                        .content(asJsonString(payload))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+    }
+
+    @Test
+    @DisplayName("UpdateStation - If-Match of another station fails the precondition")
+    void shouldRejectForeignIfMatch() throws Exception {
+        var payload = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/stations")
+                        .header(HttpHeaders.IF_MATCH, "\"2-0\"")
+                        .content(asJsonString(payload))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(stationService);
+    }
+
+    @Test
+    @DisplayName("UpdateStation - Stale If-Match fails the precondition")
+    void shouldRejectStaleIfMatch() throws Exception {
+        var payload = Station.builder().stationName(STATION_NAME).id(1L).build();
+
+        when(stationService.updateStation(any(Station.class))).thenThrow(new ResponseStatusException(HttpStatus.CONFLICT));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/stations")
+                        .header(HttpHeaders.IF_MATCH, "\"1-0\"")
+                        .content(asJsonString(payload))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("DeleteStation - Success")
     void shouldDeleteStation() throws Exception {
@@ -167,4 +638,55 @@ class StationsControllerTest {
                         .delete("/stations/1"))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    @DisplayName("DeleteStation - Station not found")
+    void shouldNotDeleteMissingStation() throws Exception {
+        doThrow(new ResponseStatusException(HttpStatus.NOT_FOUND)).when(stationService).deleteStation(1L);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .delete("/stations/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("UpdateStations - Result of every item is returned")
+    void shouldUpdateBatchOfStations() throws Exception {
+        var payload = List.of(
+                Station.builder().stationName(STATION_NAME).id(1L).version(0).build(),
+                Station.builder().stationName(STATION_NAME).id(2L).version(0).build());
+        var updated = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+
+        when(stationService.updateStations(payload)).thenReturn(List.of(
+                new BatchItemResult(0, 200, updated, null),
+                new BatchItemResult(1, 409, null, "Version mismatch")));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/stations/batch")
+                        .content(asJsonString(payload))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].station.version").value(1))
+                .andExpect(jsonPath("$[1].status").value(409));
+    }
+
+    @Test
+    @DisplayName("DeleteStations - Result of every id is returned")
+    void shouldDeleteBatchOfStations() throws Exception {
+        when(stationService.deleteStations(List.of(1L, 2L))).thenReturn(List.of(
+                new BatchItemResult(0, 204, Station.builder().id(1L).build(), null),
+                new BatchItemResult(1, 404, Station.builder().id(2L).build(), "Station not found")));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .delete("/stations")
+                        .param("ids", "1,2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(204))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].station.id").value(2));
+    }
 }
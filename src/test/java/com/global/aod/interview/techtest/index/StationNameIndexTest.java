@@ -0,0 +1,234 @@
+package com.global.aod.interview.techtest.index;
+
+import com.global.aod.interview.techtest.configuration.NameIndexProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import com.global.aod.interview.techtest.repository.StationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StationNameIndexTest {
+
+    private static final Station HEART = new Station(1L, "Heart UK", 0);
+    private static final Station HEAT = new Station(2L, "H\u00e9at Radio", 0);
+    private static final Station KISS = new Station(3L, "Kiss", 0);
+    private static final NameIndexProperties PROPERTIES = new NameIndexProperties(true, Duration.ofMinutes(10));
+
+    @Mock
+    private StationRepository mockRepository;
+
+    @Mock
+    private ScheduledExecutorService mockScheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private StationNameIndex index;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2024-05-01T12:00:00Z"));
+        index = new StationNameIndex(mockRepository, PROPERTIES, meterRegistry, new DirectExecutorService(), mockScheduler, clock);
+
+        when(mockRepository.findAllStations(Sort.by(Sort.Direction.ASC, "id"))).thenReturn(List.of(KISS, HEAT, HEART));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("autocomplete - Prefix matches in name order, ignoring case and accents")
+    void shouldAutocompleteByPrefix() {
+        assertThat(index.autocomplete("HE", 10)).containsExactly(HEART, HEAT);
+        assertThat(index.autocomplete("hea", 1)).containsExactly(HEART);
+        assertThat(index.autocomplete("heat", 10)).containsExactly(HEAT);
+        assertThat(index.autocomplete("x", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("isBuilt - Only once the stations have been loaded")
+    void shouldBeBuiltAfterLoading() {
+        var notLoaded = new StationNameIndex(mockRepository, PROPERTIES, new SimpleMeterRegistry(), new DirectExecutorService(),
+                mockScheduler, clock);
+
+        assertThat(notLoaded.isBuilt()).isFalse();
+        assertThat(index.isBuilt()).isTrue();
+    }
+
+    @Test
+    @DisplayName("onStationChanged - Created, updated and deleted stations are applied")
+    void shouldApplyChanges() {
+        var capital = new Station(4L, "Capital FM", 0);
+        var renamedKiss = new Station(3L, "Heart Dance", 1);
+
+        index.onStationChanged(StationChangedEvent.created(capital));
+        index.onStationChanged(StationChangedEvent.updated(renamedKiss));
+        index.onStationChanged(StationChangedEvent.deleted(1L));
+
+        assertThat(index.autocomplete("c", 10)).containsExactly(capital);
+        assertThat(index.autocomplete("he", 10)).containsExactly(renamedKiss, HEAT);
+        assertThat(index.autocomplete("k", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("onStationChanged - Late events don't bring back old versions or deleted stations")
+    void shouldIgnoreLateEvents() {
+        var renamedKiss = new Station(3L, "Kiss Fresh", 2);
+
+        index.onStationChanged(StationChangedEvent.updated(renamedKiss));
+        index.onStationChanged(StationChangedEvent.updated(new Station(3L, "Kisstory", 1)));
+        index.onStationChanged(StationChangedEvent.deleted(1L));
+        index.onStationChanged(StationChangedEvent.updated(new Station(1L, "Heart UK", 1)));
+
+        assertThat(index.autocomplete("kiss", 10)).containsExactly(renamedKiss);
+        assertThat(index.autocomplete("heart", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("onStationChanged - Deleted stations are only remembered for a while, and counted in the memory")
+    void shouldForgetDeletedStations() {
+        var memory = meterRegistry.get("stations.name.index.memory").gauge();
+        index.onStationChanged(StationChangedEvent.deleted(1L));
+        index.onStationChanged(StationChangedEvent.deleted(2L));
+
+        assertThat(memory.value()).isGreaterThan(index.snapshot().estimatedBytes());
+
+        clock.advance(StationNameIndex.DELETED_RETENTION.plusSeconds(1));
+        index.onStationChanged(StationChangedEvent.created(new Station(4L, "Capital FM", 0)));
+
+        assertThat(memory.value()).isEqualTo(index.snapshot().estimatedBytes());
+        assertThat(index.autocomplete("", 10)).extracting(Station::id).containsExactly(4L, 3L);
+    }
+
+    @Test
+    @DisplayName("onStationInvalidated - Newer versions written elsewhere are read from the database")
+    void shouldReloadInvalidatedStations() {
+        var renamedKiss = new Station(3L, "Kiss Fresh", 1);
+        when(mockRepository.findStationById(3L)).thenReturn(Optional.of(renamedKiss));
+
+        index.onStationInvalidated(StationInvalidatedEvent.written(3L, 1));
+        index.onStationInvalidated(StationInvalidatedEvent.written(1L, 0));
+        index.onStationInvalidated(StationInvalidatedEvent.deleted(2L));
+
+        assertThat(index.autocomplete("kiss", 10)).containsExactly(renamedKiss);
+        assertThat(index.autocomplete("he", 10)).containsExactly(HEART);
+        verify(mockRepository, never()).findStationById(1L);
+    }
+
+    @Test
+    @DisplayName("start - The index is loaded again every rebuild interval, with the writes made elsewhere")
+    void shouldRebuildPeriodically() {
+        var rebuild = ArgumentCaptor.forClass(Runnable.class);
+        var renamedKiss = new Station(3L, "Kiss Fresh", 1);
+
+        index.start();
+        verify(mockScheduler).scheduleWithFixedDelay(rebuild.capture(), eq(600_000L), eq(600_000L),
+                eq(TimeUnit.MILLISECONDS));
+
+        // Written by another instance without a notification
+        when(mockRepository.findAllStations(Sort.by(Sort.Direction.ASC, "id")))
+                .thenReturn(List.of(renamedKiss, HEAT, HEART));
+        rebuild.getValue().run();
+
+        assertThat(index.autocomplete("kiss", 10)).containsExactly(renamedKiss);
+        assertThat(meterRegistry.get("stations.name.index.build").tag("type", "full").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("metrics - Build time, size and memory footprint are published")
+    void shouldPublishMetrics() {
+        assertThat(meterRegistry.get("stations.name.index.build").tag("type", "full").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stations.name.index.entries").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("stations.name.index.memory").gauge().value()).isPositive();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    /**
+     * Runs the merges on the calling thread, so the index is up-to-date as soon as the event was handed over.
+     */
+    private static class DirectExecutorService extends AbstractExecutorService {
+
+        private final SyncTaskExecutor executor = new SyncTaskExecutor();
+
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
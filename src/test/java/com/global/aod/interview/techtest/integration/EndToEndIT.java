@@ -1,6 +1,9 @@
 package com.global.aod.interview.techtest.integration;
 
+import com.global.aod.interview.techtest.contoller.StationsController;
+import com.global.aod.interview.techtest.model.BatchItemResult;
 import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,11 +15,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.Objects;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +29,8 @@ import static org.assertj.core.api.Assertions.fail;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
 @ActiveProfiles("test")
+// Hibernate keeps a pool of sequence values in memory, a fresh context starts again from the reset sequence
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class EndToEndIT {
 
     @LocalServerPort
@@ -160,6 +167,210 @@ class EndToEndIT {
         body = stationListResponse.getBody();
         assertThat(body).isNotNull();
         assertStationArrayOrderByName(body, "Kiss", "Radio X", "Capital FM", "Heart UK");
+
+        // STEP 6: Retrieve the list of stations orderby=-name,id
+        stationListResponse = restTemplate.getForEntity(baseUrl + "?orderby=-name,id", Station[].class);
+        assertStatusCode(stationListResponse, HttpStatus.OK);
+        body = stationListResponse.getBody();
+        assertThat(body).isNotNull();
+        assertStationArrayOrderByName(body, "Radio X", "Kiss", "Heart UK", "Capital FM");
+    }
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Walking through the stations page by page with a cursor")
+    void shouldPaginateWithCursor() {
+        // STEP 1: Add stations
+        addAndCheckFourStations(baseUrl);
+
+        // STEP 2: First page ordered by name descending
+        var pageResponse = restTemplate.getForEntity(baseUrl + "?orderby=name&direction=desc&limit=3", Station[].class);
+        assertStatusCode(pageResponse, HttpStatus.OK);
+        assertThat(pageResponse.getBody()).isNotNull();
+        assertStationArrayOrderByName(pageResponse.getBody(), "Radio X", "Kiss", "Heart UK");
+        var cursor = pageResponse.getHeaders().getFirst(StationsController.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isNotBlank();
+
+        // STEP 3: The cursor carries the ordering, the last page has no next cursor
+        pageResponse = restTemplate.getForEntity(baseUrl + "?limit=3&cursor=" + cursor, Station[].class);
+        assertStatusCode(pageResponse, HttpStatus.OK);
+        assertThat(pageResponse.getBody()).isNotNull().hasSize(1);
+        assertStationArrayOrderByName(pageResponse.getBody(), "Capital FM");
+        assertThat(pageResponse.getHeaders().containsKey(StationsController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Conditional requests with entity tags")
+    void shouldAnswerConditionalRequests() {
+        // STEP 1: Add stations and read one of them with its tag
+        addAndCheckFourStations(baseUrl);
+        var singleStationResponse = restTemplate.getForEntity(baseUrl.concat("/2"), Station.class);
+        assertStatusCode(singleStationResponse, HttpStatus.OK);
+        var eTag = singleStationResponse.getHeaders().getETag();
+        assertThat(eTag).isEqualTo("\"2-0\"");
+
+        // STEP 2: Nothing has changed
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        var conditionalResponse = restTemplate.exchange(baseUrl.concat("/2"), HttpMethod.GET, new HttpEntity<>(headers), Station.class);
+        assertStatusCode(conditionalResponse, HttpStatus.NOT_MODIFIED);
+
+        var listResponse = restTemplate.getForEntity(baseUrl, Station[].class);
+        var listHeaders = new HttpHeaders();
+        listHeaders.setIfNoneMatch(Objects.requireNonNull(listResponse.getHeaders().getETag()));
+        var conditionalListResponse = restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(listHeaders), Station[].class);
+        assertStatusCode(conditionalListResponse, HttpStatus.NOT_MODIFIED);
+
+        // STEP 3: Amend the station with If-Match, the version in the body is not used
+        var updateHeaders = new HttpHeaders();
+        updateHeaders.setContentType(MediaType.APPLICATION_JSON);
+        updateHeaders.setIfMatch(eTag);
+        var stationToAmend = Station.builder().id(2L).stationName("Modified FM").version(42).build();
+        var amendResponse = restTemplate.exchange(baseUrl, HttpMethod.PUT, new HttpEntity<>(stationToAmend, updateHeaders), Station.class);
+        assertStatusCode(amendResponse, HttpStatus.OK);
+        assertThat(amendResponse.getHeaders().getETag()).isEqualTo("\"2-1\"");
+
+        // STEP 4: The old tags are out of date now
+        conditionalResponse = restTemplate.exchange(baseUrl.concat("/2"), HttpMethod.GET, new HttpEntity<>(headers), Station.class);
+        assertStatusCode(conditionalResponse, HttpStatus.OK);
+        assertStation(conditionalResponse.getBody(), 2L, "Modified FM", 1);
+        conditionalListResponse = restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(listHeaders), Station[].class);
+        assertStatusCode(conditionalListResponse, HttpStatus.OK);
+
+        try {
+            restTemplate.exchange(baseUrl, HttpMethod.PUT, new HttpEntity<>(stationToAmend, updateHeaders), Station.class);
+            fail("This should throw a HttpClientErrorException.");
+        } catch (HttpClientErrorException e) {
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Creating many stations in one batch")
+    void shouldCreateBatchOfStations() {
+        // STEP 1: Send a batch with an invalid item in the middle
+        var batch = List.of(
+                Station.builder().stationName("Heart UK").build(),
+                Station.builder().build(),
+                Station.builder().stationName("Capital FM").build());
+        var batchResponse = restTemplate.postForEntity(baseUrl + "/batch", batch, BatchItemResult[].class);
+        assertStatusCode(batchResponse, HttpStatus.OK);
+        var results = batchResponse.getBody();
+        assertThat(results).isNotNull().hasSize(3);
+        assertThat(results[0].status()).isEqualTo(HttpStatus.CREATED.value());
+        assertStation(results[0].station(), 1L, "Heart UK", 0);
+        assertThat(results[1].status()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(results[2].status()).isEqualTo(HttpStatus.CREATED.value());
+        assertStation(results[2].station(), 2L, "Capital FM", 0);
+
+        // STEP 2: Only the valid stations were saved
+        var stationListResponse = restTemplate.getForEntity(baseUrl, Station[].class);
+        assertStatusCode(stationListResponse, HttpStatus.OK);
+        assertThat(stationListResponse.getBody()).isNotNull().hasSize(2);
+    }
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Updating and deleting many stations in one batch")
+    void shouldUpdateAndDeleteBatchOfStations() {
+        // STEP 1: Add stations
+        addAndCheckFourStations(baseUrl);
+
+        // STEP 2: Rename stations, one of them with an outdated version and one which doesn't exist
+        var batch = List.of(
+                Station.builder().id(1L).version(0).stationName("Heart London").build(),
+                Station.builder().id(2L).version(5).stationName("Capital London").build(),
+                Station.builder().id(99L).version(0).stationName("Missing").build());
+        var batchResponse = restTemplate.exchange(baseUrl + "/batch", HttpMethod.PUT, new HttpEntity<>(batch), BatchItemResult[].class);
+        assertStatusCode(batchResponse, HttpStatus.OK);
+        var results = batchResponse.getBody();
+        assertThat(results).isNotNull().hasSize(3);
+        assertThat(results[0].status()).isEqualTo(HttpStatus.OK.value());
+        assertStation(results[0].station(), 1L, "Heart London", 1);
+        assertThat(results[1].status()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(results[2].status()).isEqualTo(HttpStatus.NOT_FOUND.value());
+
+        // STEP 3: Delete stations, one of them doesn't exist
+        batchResponse = restTemplate.exchange(baseUrl + "?ids=3,4,99", HttpMethod.DELETE, null, BatchItemResult[].class);
+        assertStatusCode(batchResponse, HttpStatus.OK);
+        results = batchResponse.getBody();
+        assertThat(results).isNotNull().hasSize(3);
+        assertThat(results[0].status()).isEqualTo(HttpStatus.NO_CONTENT.value());
+        assertThat(results[1].status()).isEqualTo(HttpStatus.NO_CONTENT.value());
+        assertThat(results[2].status()).isEqualTo(HttpStatus.NOT_FOUND.value());
+
+        // STEP 4: Only the first two stations are left, the second one unchanged
+        var stationListResponse = restTemplate.getForEntity(baseUrl, Station[].class);
+        assertStatusCode(stationListResponse, HttpStatus.OK);
+        assertThat(stationListResponse.getBody()).isNotNull().hasSize(2);
+        assertStation(stationListResponse.getBody()[0], 1L, "Heart London", 1);
+        assertStation(stationListResponse.getBody()[1], 2L, "Capital FM", 0);
+    }
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Following the changes of the stations from a watermark")
+    void shouldFollowChanges() {
+        // STEP 1: Add stations, every one of them is a change
+        addAndCheckFourStations(baseUrl);
+        var changesResponse = restTemplate.getForEntity(baseUrl + "/changes", StationChange[].class);
+        assertStatusCode(changesResponse, HttpStatus.OK);
+        assertThat(changesResponse.getBody()).isNotNull().hasSize(4);
+        var watermark = changesResponse.getBody()[3].seq();
+
+        // STEP 2: Nothing changed since the last change received
+        changesResponse = restTemplate.getForEntity(baseUrl + "/changes?since=" + watermark, StationChange[].class);
+        assertStatusCode(changesResponse, HttpStatus.NO_CONTENT);
+
+        // STEP 3: An update and a delete are returned, the deleted station as a tombstone
+        restTemplate.exchange(baseUrl, HttpMethod.PUT,
+                buildHttpEntity(Station.builder().id(1L).version(0).stationName("Heart London").build()), Station.class);
+        restTemplate.exchange(baseUrl + "/2", HttpMethod.DELETE, buildHttpEntity(null), Void.class);
+        changesResponse = restTemplate.getForEntity(baseUrl + "/changes?since=" + watermark, StationChange[].class);
+        assertStatusCode(changesResponse, HttpStatus.OK);
+        var changes = changesResponse.getBody();
+        assertThat(changes).isNotNull().containsExactly(
+                new StationChange(watermark + 1, 1L, "Heart London", 1, false),
+                new StationChange(watermark + 2, 2L, null, null, true));
+    }
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Searching stations by part of their name")
+    void shouldSearchStationsByName() {
+        // STEP 1: Add stations
+        addAndCheckFourStations(baseUrl);
+        restTemplate.postForEntity(baseUrl, Station.builder().stationName("Absolute 80s Kiss").build(), Station.class);
+
+        // STEP 2: Stations starting with the query come before the ones only containing it
+        var searchResponse = restTemplate.getForEntity(baseUrl + "/search?q=KISS", Station[].class);
+        assertStatusCode(searchResponse, HttpStatus.OK);
+        assertThat(searchResponse.getBody()).isNotNull().hasSize(2);
+        assertStationArrayOrderByName(searchResponse.getBody(), "Kiss", "Absolute 80s Kiss");
+
+        // STEP 3: Wildcards in the query are taken literally
+        searchResponse = restTemplate.getForEntity(baseUrl + "/search?q=%", Station[].class);
+        assertStatusCode(searchResponse, HttpStatus.NO_CONTENT);
+    }
+
+    @Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Test
+    @DisplayName("Latency histograms are exposed for Prometheus")
+    void shouldExposeLatencyHistograms() {
+        // STEP 1: Create and read a station
+        restTemplate.postForEntity(baseUrl, Station.builder().stationName("Heart UK").build(), Station.class);
+        restTemplate.getForEntity(baseUrl, Station[].class);
+
+        // STEP 2: The endpoint, the service, the repository, the statements and the pool are timed
+        var scrape = restTemplate.getForObject(baseUrl.replace("/stations", "/actuator/prometheus"), String.class);
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("stations_service_seconds_bucket{")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("stations_db_statements_seconds_bucket{")
+                .contains("hikaricp_connections_active{");
     }
 
     private HttpEntity<Station> buildHttpEntity(Station station) {
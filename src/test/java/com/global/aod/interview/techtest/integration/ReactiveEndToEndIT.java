@@ -0,0 +1,121 @@
+package com.global.aod.interview.techtest.integration;
+
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the {@code reactive} profile as it is configured in {@code application-reactive.yml}, with the JDBC and JPA
+ * auto-configuration left out, Flyway migrating through its own connection and R2DBC serving the requests. Both point
+ * to the same in-memory database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=sa"})
+@ActiveProfiles({"test", "reactive"})
+class ReactiveEndToEndIT {
+
+    private static final String LAST_RESERVED = "SELECT seq FROM station_change_counter WHERE id = 1";
+    private static final String SELECT_SINCE = "SELECT seq, station_id, name, version, deleted FROM station_change "
+            + "WHERE seq > :since ORDER BY seq";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    @DisplayName("End to end test with creating, retrieving, amending and deleting station data on WebFlux and R2DBC")
+    void shouldWorkEndToEnd() {
+        long since = lastReserved();
+
+        // STEP 1: Register a station, its id comes from the sequence shared with the JPA variant
+        var created = webTestClient.post().uri("/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Station.builder().stationName("Heart UK").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Station.class)
+                .returnResult().getResponseBody();
+        assertThat(created).isNotNull();
+        assertThat(created.id()).isNotNull();
+        assertThat(created.stationName()).isEqualTo("Heart UK");
+        assertThat(created.version()).isZero();
+
+        // STEP 2: Get it back
+        webTestClient.get().uri("/stations/{id}", created.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Station.class).isEqualTo(created);
+
+        // STEP 3: Amend it, then again with the outdated version
+        var amended = new Station(created.id(), "Heart London", created.version());
+        webTestClient.put().uri("/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(amended)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Station.class).isEqualTo(new Station(created.id(), "Heart London", 1));
+        webTestClient.put().uri("/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(amended)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        // STEP 4: Delete it, a second delete doesn't find it any more
+        webTestClient.delete().uri("/stations/{id}", created.id())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/stations/{id}", created.id())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/stations/{id}", created.id())
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // STEP 5: The successful writes are in the change log, numbered by the shared counter
+        assertThat(changesSince(since)).containsExactly(
+                new StationChange(since + 1, created.id(), "Heart UK", 0, false),
+                new StationChange(since + 2, created.id(), "Heart London", 1, false),
+                new StationChange(since + 3, created.id(), null, null, true));
+        assertThat(lastReserved()).isEqualTo(since + 3);
+    }
+
+    private long lastReserved() {
+        return Objects.requireNonNull(databaseClient.sql(LAST_RESERVED)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block());
+    }
+
+    private List<StationChange> changesSince(long since) {
+        return databaseClient.sql(SELECT_SINCE)
+                .bind("since", since)
+                .map(row -> new StationChange(
+                        Objects.requireNonNull(row.get("seq", Long.class)),
+                        row.get("station_id", Long.class),
+                        row.get("name", String.class),
+                        row.get("version", Integer.class),
+                        Boolean.TRUE.equals(row.get("deleted", Boolean.class))))
+                .all()
+                .collectList()
+                .block();
+    }
+}
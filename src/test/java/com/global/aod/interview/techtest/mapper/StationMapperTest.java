@@ -2,6 +2,7 @@ package com.global.aod.interview.techtest.mapper;
 
 import com.global.aod.interview.techtest.model.Station;
 import com.global.aod.interview.techtest.model.entity.StationEntity;
+import com.global.aod.interview.techtest.model.entity.StationRow;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -14,7 +15,7 @@ class StationMapperTest {
     @Test
     @DisplayName("ToDto - Should return null when input is null")
     void shouldReturnNullDto() {
-        assertThat(mapper.toDto(null)).isNull();
+        assertThat(mapper.toDto((StationEntity) null)).isNull();
     }
 
     @Test
@@ -46,4 +47,21 @@ class StationMapperTest {
         assertThat(entity.getName()).isEqualTo(dto.stationName());
         assertThat(entity.getVersion()).isEqualTo(dto.version());
     }
+
+    @Test
+    @DisplayName("ToDto - Dto mapped from a row")
+    void shouldMapDtoFromRow() {
+        var row = new StationRow(1L, "Name of Station", 1);
+        var dto = mapper.toDto(row);
+
+        assertThat(dto).isEqualTo(new Station(1L, "Name of Station", 1));
+    }
+
+    @Test
+    @DisplayName("ToRow - Row mapped")
+    void shouldMapRow() {
+        var dto = Station.builder().stationName("Name of Station").version(1).id(1L).build();
+
+        assertThat(mapper.toRow(dto)).isEqualTo(new StationRow(1L, "Name of Station", 1));
+    }
 }
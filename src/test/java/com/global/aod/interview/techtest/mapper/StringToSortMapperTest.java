@@ -0,0 +1,66 @@
+package com.global.aod.interview.techtest.mapper;
+
+import com.global.aod.interview.techtest.model.Fields;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringToSortMapperTest {
+
+    private final StringToSortMapper mapper = new StringToSortMapper();
+
+    @Test
+    @DisplayName("Convert - Single field, ascending by default")
+    void shouldConvertSingleField() {
+        assertThat(mapper.convert("NaMe")).isEqualTo(Sort.by(Sort.Direction.ASC, "name"));
+        assertThat(mapper.convert("+name")).isEqualTo(Sort.by(Sort.Direction.ASC, "name"));
+        assertThat(mapper.convert("-name")).isEqualTo(Sort.by(Sort.Direction.DESC, "name"));
+    }
+
+    @Test
+    @DisplayName("Convert - Several fields in the given order")
+    void shouldConvertSeveralFields() {
+        assertThat(mapper.convert("name,-id")).isEqualTo(Sort.by(Sort.Order.asc("name"), Sort.Order.desc("id")));
+        assertThat(mapper.convert(" -id , name ")).isEqualTo(Sort.by(Sort.Order.desc("id"), Sort.Order.asc("name")));
+    }
+
+    @Test
+    @DisplayName("Convert - Unknown and repeated fields are skipped")
+    void shouldSkipUnknownAndRepeatedFields() {
+        assertThat(mapper.convert("popularity,-name,name")).isEqualTo(Sort.by(Sort.Direction.DESC, "name"));
+        assertThat(mapper.convert("popularity")).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+        assertThat(mapper.convert(",,")).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+        assertThat(mapper.convert("")).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    @Test
+    @DisplayName("Convert - Every spec gives a shared instance")
+    void shouldReturnSharedInstances() {
+        assertThat(mapper.convert("name,-id")).isSameAs(new StringToSortMapper().convert(" Name, -ID, name"));
+        assertThat(mapper.convert("-id,name")).isNotSameAs(mapper.convert("name,-id"));
+        assertThat(mapper.convert("-name")).isSameAs(StringToSortMapper.sortBy(Fields.NAME, Sort.Direction.DESC));
+        assertThat(mapper.convert("popularity")).isSameAs(StringToSortMapper.sortBy(Fields.ID, Sort.Direction.ASC));
+    }
+
+    @Test
+    @DisplayName("Convert - Lots of different garbage doesn't change how valid specs are converted")
+    void shouldConvertValidSpecsAfterGarbage() {
+        var sort = mapper.convert("name,-id");
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(mapper.convert("field" + i + ",-rank" + i)).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+        }
+
+        assertThat(mapper.convert("name,-id")).isSameAs(sort);
+    }
+
+    @Test
+    @DisplayName("Lookup - Fields are found regardless of case, unknown names give null")
+    void shouldLookupFields() {
+        assertThat(StringToFieldsMapper.lookup("iD")).isEqualTo(Fields.ID);
+        assertThat(StringToFieldsMapper.lookup("-name", 1, 5)).isEqualTo(Fields.NAME);
+        assertThat(StringToFieldsMapper.lookup("names")).isNull();
+        assertThat(StringToFieldsMapper.lookup(null)).isNull();
+    }
+}
@@ -0,0 +1,64 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Import(StationChangeLog.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class StationChangeLogTest {
+
+    @Autowired
+    private StationChangeLog changeLog;
+
+    @Test
+    @DisplayName("append - Changes are numbered in the given order, deleted stations are logged as tombstones")
+    void shouldAppendChangesInOrder() {
+        changeLog.append(List.of(
+                StationChange.written(new Station(7L, "Heart UK", 0)),
+                StationChange.written(new Station(8L, "Capital FM", 0))));
+        changeLog.append(List.of(StationChange.deleted(7L)));
+        changeLog.append(List.of());
+
+        assertThat(changeLog.findSince(0, 10)).containsExactly(
+                new StationChange(1, 7L, "Heart UK", 0, false),
+                new StationChange(2, 8L, "Capital FM", 0, false),
+                new StationChange(3, 7L, null, null, true));
+        assertThat(changeLog.lastReserved()).isEqualTo(3);
+        assertThat(changeLog.lastSeq()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("findSince - Only the changes after since are returned, in order and at most limit of them")
+    void shouldFindChangesSince() {
+        for (long id = 1; id <= 5; id++) {
+            changeLog.append(List.of(StationChange.written(new Station(id, "Station " + id, 0))));
+        }
+
+        assertThat(changeLog.findSince(2, 2)).extracting(StationChange::seq).containsExactly(3L, 4L);
+        assertThat(changeLog.findSince(4, 10)).extracting(StationChange::seq).containsExactly(5L);
+        assertThat(changeLog.findSince(5, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("lastReserved - Zero before anything is written")
+    void shouldStartFromZero() {
+        assertThat(changeLog.lastReserved()).isZero();
+        assertThat(changeLog.lastSeq()).isZero();
+        assertThat(changeLog.findSince(0, 10)).isEmpty();
+    }
+}
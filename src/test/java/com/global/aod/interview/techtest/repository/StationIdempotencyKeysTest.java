@@ -0,0 +1,56 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.Station;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@JdbcTest
+@Import(StationIdempotencyKeys.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class StationIdempotencyKeysTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Station CREATED = new Station(1L, "Heart UK", 0);
+
+    @Autowired
+    private StationIdempotencyKeys idempotencyKeys;
+
+    @Test
+    @DisplayName("find - The saved station is found by its key until the key expires")
+    void shouldFindSavedStation() {
+        idempotencyKeys.save("retry-1", CREATED, NOW, NOW.minus(TTL));
+
+        assertThat(idempotencyKeys.find("retry-1", NOW.minus(TTL))).contains(CREATED);
+        assertThat(idempotencyKeys.find("retry-2", NOW.minus(TTL))).isEmpty();
+        assertThat(idempotencyKeys.find("retry-1", NOW.plusSeconds(1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("save - A key can't be saved twice, unless it expired")
+    void shouldRejectDuplicateKey() {
+        idempotencyKeys.save("retry-1", CREATED, NOW, NOW.minus(TTL));
+
+        assertThatThrownBy(() -> idempotencyKeys.save("retry-1", new Station(2L, "Heart UK", 0), NOW, NOW.minus(TTL)))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        var later = NOW.plus(TTL).plusSeconds(1);
+        idempotencyKeys.save("retry-1", new Station(2L, "Heart UK", 0), later, later.minus(TTL));
+        assertThat(idempotencyKeys.find("retry-1", later.minus(TTL))).contains(new Station(2L, "Heart UK", 0));
+    }
+}
@@ -0,0 +1,91 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements sent to the database by the old, entity based writes and the single statement ones.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class StationRepositoryQueryCountTest {
+
+    private static final String STATION_NAME = "Heart UK";
+
+    @Autowired
+    private StationRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        // Inserted with plain JDBC, so the station is not in the persistence context, like in a new request
+        jdbcTemplate.update("INSERT INTO station (id, name, version) VALUES (1, ?, 0)", STATION_NAME);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("saveAndFlush - Detached station is selected before the update")
+    void shouldSelectBeforeUpdateWhenMerging() {
+        repository.saveAndFlush(new StationEntity(1L, "Capital FM", 0));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("updateStation - Station is updated with one statement")
+    void shouldUpdateWithOneStatement() {
+        assertThat(repository.updateStation(1L, "Capital FM", 0)).isEqualTo(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM station WHERE id = 1", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("updateStation - Nothing updated with an outdated version")
+    void shouldNotUpdateWithOutdatedVersion() {
+        assertThat(repository.updateStation(1L, "Capital FM", 5)).isZero();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deleteById - Station is selected before the delete")
+    void shouldSelectBeforeDeleteById() {
+        repository.deleteById(1L);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("deleteStationById - Station is deleted with one statement")
+    void shouldDeleteWithOneStatement() {
+        assertThat(repository.deleteStationById(1L)).isEqualTo(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(repository.deleteStationById(1L)).isZero();
+    }
+}
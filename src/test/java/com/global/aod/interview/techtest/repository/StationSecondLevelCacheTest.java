@@ -0,0 +1,87 @@
+package com.global.aod.interview.techtest.repository;
+
+import com.global.aod.interview.techtest.configuration.SecondLevelCacheConfig;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.entity.StationEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "stations.second-level-cache.enabled=true")
+@Import(SecondLevelCacheConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class StationSecondLevelCacheTest {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Autowired
+    private StationRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("INSERT INTO station (id, name, version) VALUES (1, 'Heart UK', 0)");
+        var sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findAllStations - The list is read from the database every time, a write elsewhere can't leave it stale")
+    void shouldNotCacheQueryResult() {
+        repository.findAllStations(BY_ID);
+        jdbcTemplate.update("UPDATE station SET name = 'Capital FM', version = 1 WHERE id = 1");
+        var stations = repository.findAllStations(BY_ID);
+
+        assertThat(stations).containsExactly(new Station(1L, "Capital FM", 1));
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("updateAll - Cached entities are evicted by a bulk update")
+    void shouldEvictEntitiesOnBulkUpdate() {
+        repository.findById(1L);
+        entityManager.clear();
+        repository.updateAll(List.of(new Station(1L, "Capital FM", 0)));
+        var entity = repository.findById(1L);
+
+        assertThat(entity).contains(new StationEntity(1L, "Capital FM", 1));
+    }
+
+    @Test
+    @DisplayName("findById - Station entity is read from the second-level cache")
+    void shouldCacheEntity() {
+        repository.findById(1L);
+        entityManager.clear();
+        var entity = repository.findById(1L);
+
+        assertThat(entity).contains(new StationEntity(1L, "Heart UK", 0));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+}
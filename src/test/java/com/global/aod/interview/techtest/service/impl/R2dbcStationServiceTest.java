@@ -0,0 +1,139 @@
+package com.global.aod.interview.techtest.service.impl;
+
+import com.global.aod.interview.techtest.mapper.StationMapper;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.entity.StationRow;
+import com.global.aod.interview.techtest.repository.ReactiveStationChangeLog;
+import com.global.aod.interview.techtest.repository.ReactiveStationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class R2dbcStationServiceTest {
+
+    private static final String STATION_NAME = "Heart FM";
+
+    @Mock
+    private ReactiveStationRepository mockRepository;
+
+    @Mock
+    private ReactiveStationChangeLog mockChangeLog;
+
+    private R2dbcStationService service;
+
+    @BeforeEach
+    public void setup() {
+        service = new R2dbcStationService(mockRepository, mockChangeLog, StationMapper.INSTANCE);
+    }
+
+    @Test
+    @DisplayName("createStation - New row is saved without id and version, and logged as a change")
+    void shouldSaveNewRow() {
+        var created = new Station(51L, STATION_NAME, 0);
+        when(mockRepository.save(new StationRow(null, STATION_NAME, null)))
+                .thenReturn(Mono.just(new StationRow(51L, STATION_NAME, 0)));
+        when(mockChangeLog.append(StationChange.written(created))).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.createStation(Station.builder().stationName(STATION_NAME).build()))
+                .expectNext(created)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("updateStation - Updated row is logged as a change")
+    void shouldUpdateStation() {
+        var updated = new Station(1L, STATION_NAME, 4);
+        when(mockRepository.save(new StationRow(1L, STATION_NAME, 3)))
+                .thenReturn(Mono.just(new StationRow(1L, STATION_NAME, 4)));
+        when(mockChangeLog.append(StationChange.written(updated))).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.updateStation(new Station(1L, STATION_NAME, 3)))
+                .expectNext(updated)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAllStations - Ordered by id when no order is given")
+    void shouldFindAllStationsOrderedById() {
+        when(mockRepository.findAll(Sort.by(Sort.Direction.ASC, "id")))
+                .thenReturn(Flux.just(new StationRow(1L, STATION_NAME, 0), new StationRow(2L, "Kiss", 0)));
+
+        StepVerifier.create(service.findAllStations(Sort.unsorted()))
+                .expectNext(new Station(1L, STATION_NAME, 0), new Station(2L, "Kiss", 0))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findById - Empty when the station doesn't exist")
+    void shouldNotFindStation() {
+        when(mockRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.findById(1L)).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("updateStation - Version mismatch is a conflict")
+    void shouldFailUpdateOnVersionMismatch() {
+        when(mockRepository.save(new StationRow(1L, STATION_NAME, 3)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("")));
+
+        StepVerifier.create(service.updateStation(new Station(1L, STATION_NAME, 3)))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.CONFLICT))
+                .verify();
+
+        verifyNoInteractions(mockChangeLog);
+    }
+
+    @Test
+    @DisplayName("updateStation - Version is required")
+    void shouldRejectUpdateWithoutVersion() {
+        StepVerifier.create(service.updateStation(new Station(1L, STATION_NAME, null)))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST))
+                .verify();
+
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("deleteStation - Row is deleted and logged as a change")
+    void shouldDeleteStation() {
+        when(mockRepository.deleteStationById(1L)).thenReturn(Mono.just(1));
+        when(mockChangeLog.append(StationChange.deleted(1L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.deleteStation(1L)).verifyComplete();
+
+        verify(mockChangeLog).append(StationChange.deleted(1L));
+    }
+
+    @Test
+    @DisplayName("deleteStation - Unknown station is not found")
+    void shouldNotDeleteUnknownStation() {
+        when(mockRepository.deleteStationById(1L)).thenReturn(Mono.just(0));
+
+        StepVerifier.create(service.deleteStation(1L))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.NOT_FOUND))
+                .verify();
+
+        verifyNoInteractions(mockChangeLog);
+    }
+}
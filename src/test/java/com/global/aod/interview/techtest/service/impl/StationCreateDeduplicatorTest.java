@@ -0,0 +1,169 @@
+package com.global.aod.interview.techtest.service.impl;
+
+import com.global.aod.interview.techtest.configuration.IdempotencyProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.repository.StationIdempotencyKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StationCreateDeduplicatorTest {
+
+    private static final String KEY = "retry-1";
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+    private static final Station REQUEST = Station.builder().stationName("Heart UK").build();
+    private static final Station CREATED = new Station(1L, "Heart UK", 0);
+
+    @Mock
+    private StationIdempotencyKeys mockIdempotencyKeys;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger creates;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        creates = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("create - A retry with the same key gets the station created first, without creating another one")
+    void shouldReplayCreate() {
+        var deduplicator = deduplicator(false);
+
+        assertThat(deduplicator.create(KEY, REQUEST, creator())).isEqualTo(CREATED);
+        assertThat(deduplicator.create(KEY, REQUEST, creator())).isEqualTo(CREATED);
+
+        assertThat(creates).hasValue(1);
+        assertThat(meterRegistry.get("stations.idempotency.replays").counter().count()).isEqualTo(1);
+        verifyNoInteractions(mockIdempotencyKeys);
+    }
+
+    @Test
+    @DisplayName("create - The same key with another station name is rejected")
+    void shouldRejectKeyReusedForAnotherStation() {
+        var deduplicator = deduplicator(false);
+        deduplicator.create(KEY, REQUEST, creator());
+
+        assertThatThrownBy(() -> deduplicator.create(KEY, Station.builder().stationName("Capital FM").build(), creator()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("create - A retry while the first request is still running is rejected")
+    void shouldRejectConcurrentRetry() {
+        var deduplicator = deduplicator(false);
+
+        var response = deduplicator.create(KEY, REQUEST, () -> {
+            assertThatThrownBy(() -> deduplicator.create(KEY, REQUEST, creator()))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+            return CREATED;
+        });
+
+        assertThat(response).isEqualTo(CREATED);
+        assertThat(creates).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("create - A failed create releases the key, the retry creates the station")
+    void shouldReleaseKeyOfFailedCreate() {
+        var deduplicator = deduplicator(false);
+
+        assertThatThrownBy(() -> deduplicator.create(KEY, REQUEST, () -> {
+            throw new IllegalStateException("Database is down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(deduplicator.create(KEY, REQUEST, creator())).isEqualTo(CREATED);
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("create - Blank and too long keys are rejected")
+    void shouldRejectInvalidKey() {
+        var deduplicator = deduplicator(false);
+
+        for (var key : new String[]{" ", "k".repeat(StationCreateDeduplicator.MAX_KEY_LENGTH + 1)}) {
+            assertThatThrownBy(() -> deduplicator.create(key, REQUEST, creator()))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+        assertThat(creates).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("create - With persistent keys, a key saved by another instance is answered from the table")
+    void shouldReplayPersistentKey() {
+        var deduplicator = deduplicator(true);
+        when(mockIdempotencyKeys.find(KEY, NOW.minus(Duration.ofHours(24)))).thenReturn(Optional.of(CREATED));
+
+        assertThat(deduplicator.create(KEY, REQUEST, creator())).isEqualTo(CREATED);
+        assertThat(deduplicator.create(KEY, REQUEST, creator())).isEqualTo(CREATED);
+
+        assertThat(creates).hasValue(0);
+        // The second retry is answered from memory
+        verify(mockIdempotencyKeys).find(KEY, NOW.minus(Duration.ofHours(24)));
+    }
+
+    @Test
+    @DisplayName("create - With persistent keys, losing the race for the key answers with the station of the winner")
+    void shouldReplayWhenAnotherInstanceSavedKeyFirst() {
+        var deduplicator = deduplicator(true);
+        when(mockIdempotencyKeys.find(KEY, NOW.minus(Duration.ofHours(24))))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(CREATED));
+
+        var response = deduplicator.create(KEY, REQUEST, () -> {
+            throw new DuplicateKeyException("station_idempotency_key_pkey");
+        });
+
+        assertThat(response).isEqualTo(CREATED);
+    }
+
+    @Test
+    @DisplayName("save - Keys are saved with their station only when they are persistent")
+    void shouldSaveOnlyPersistentKeys() {
+        deduplicator(false).save(KEY, CREATED);
+        verifyNoInteractions(mockIdempotencyKeys);
+
+        deduplicator(true).save(KEY, CREATED);
+        verify(mockIdempotencyKeys).save(KEY, CREATED, NOW, NOW.minus(Duration.ofHours(24)));
+    }
+
+    private StationCreateDeduplicator deduplicator(boolean persistent) {
+        return new StationCreateDeduplicator(mockIdempotencyKeys,
+                new IdempotencyProperties(Duration.ofHours(24), 1000, persistent), meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private Supplier<Station> creator() {
+        return () -> {
+            creates.incrementAndGet();
+            return CREATED;
+        };
+    }
+}
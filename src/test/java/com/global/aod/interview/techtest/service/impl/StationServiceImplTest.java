@@ -1,9 +1,20 @@
 package com.global.aod.interview.techtest.service.impl;
 
+import com.global.aod.interview.techtest.cache.StationCache;
+import com.global.aod.interview.techtest.index.StationNameIndex;
 import com.global.aod.interview.techtest.mapper.StationMapper;
+import com.global.aod.interview.techtest.model.BatchItemResult;
+import com.global.aod.interview.techtest.model.Fields;
 import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.StationCursor;
+import com.global.aod.interview.techtest.model.StationList;
+import com.global.aod.interview.techtest.model.StationListVersion;
 import com.global.aod.interview.techtest.model.entity.StationEntity;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.repository.StationChangeLog;
 import com.global.aod.interview.techtest.repository.StationRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,18 +22,36 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -40,9 +69,39 @@ class StationServiceImplTest {
     @Mock
     private StationMapper mockMapper;
 
+    @Mock
+    private EntityManager mockEntityManager;
+
+    @Mock
+    private StationCache mockCache;
+
+    @Mock
+    private ApplicationEventPublisher mockEventPublisher;
+
+    @Mock
+    private ObjectProvider<StationNameIndex> mockNameIndexProvider;
+
+    @Mock
+    private StationNameIndex mockNameIndex;
+
+    @Mock
+    private StationChangeLog mockChangeLog;
+
+    @Mock
+    private StationUpdateCoalescer mockUpdateCoalescer;
+
+    @Mock
+    private TransactionTemplate mockTransactionTemplate;
+
+    @Mock
+    private StationCreateDeduplicator mockCreateDeduplicator;
+
     @BeforeEach
     public void setup() {
-        reset(mockMapper, mockRepository);
+        reset(mockMapper, mockRepository, mockEntityManager, mockCache, mockEventPublisher, mockNameIndexProvider, mockNameIndex, mockChangeLog,
+                mockUpdateCoalescer, mockTransactionTemplate, mockCreateDeduplicator);
+        lenient().when(mockTransactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -58,32 +117,383 @@ class StationServiceImplTest {
 
         var response = impl.createStation(station);
         assertThat(response).isNotNull().isEqualTo(responseStation);
+        verify(mockChangeLog).append(List.of(StationChange.written(responseStation)));
+        verify(mockEventPublisher).publishEvent(StationChangedEvent.created(responseStation));
+    }
+
+    @Test
+    @DisplayName("createStation - With an Idempotency-Key the key is saved together with the station")
+    void shouldSaveStationWithIdempotencyKey() {
+        var station = Station.builder().stationName(STATION_NAME).build();
+        var stationEntity = new StationEntity(1L, STATION_NAME, 0);
+        var responseStation = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(mockCreateDeduplicator.create(eq("retry-1"), eq(station), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Station>>getArgument(2).get());
+        when(mockMapper.toEntity(station)).thenReturn(stationEntity);
+        when(mockRepository.save(stationEntity)).thenReturn(stationEntity);
+        when(mockMapper.toDto(stationEntity)).thenReturn(responseStation);
+
+        assertThat(impl.createStation(station, "retry-1")).isEqualTo(responseStation);
+        verify(mockCreateDeduplicator).save("retry-1", responseStation);
+        verify(mockChangeLog).append(List.of(StationChange.written(responseStation)));
+    }
+
+    @Test
+    @DisplayName("createStations - Valid stations saved, invalid ones reported")
+    void shouldSaveBatchOfStations() {
+        var stationEntity = new StationEntity(1L, STATION_NAME, 0);
+        var responseStation = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        var stations = new ArrayList<Station>();
+        stations.add(Station.builder().stationName(STATION_NAME).id(99L).build());
+        stations.add(Station.builder().stationName(" ").build());
+        stations.add(null);
+
+        when(mockRepository.save(new StationEntity(null, STATION_NAME, null))).thenReturn(stationEntity);
+        when(mockMapper.toDto(stationEntity)).thenReturn(responseStation);
+
+        var response = impl.createStations(stations);
+
+        assertThat(response).containsExactly(
+                new BatchItemResult(0, 201, responseStation, null),
+                new BatchItemResult(1, 400, null, "stationName is missing"),
+                new BatchItemResult(2, 400, null, "stationName is missing"));
+        verify(mockChangeLog).append(List.of(StationChange.written(responseStation)));
+        verifyNoInteractions(mockEntityManager);
+    }
+
+    @Test
+    @DisplayName("createStations - Persistence context flushed and cleared in batches")
+    void shouldFlushBatchOfStations() {
+        var stationEntity = new StationEntity(1L, STATION_NAME, 0);
+        var stations = new ArrayList<Station>();
+        for (int i = 0; i < StationServiceImpl.FLUSH_SIZE * 2 + 1; i++) {
+            stations.add(Station.builder().stationName(STATION_NAME).build());
+        }
+
+        when(mockRepository.save(any(StationEntity.class))).thenReturn(stationEntity);
+
+        var response = impl.createStations(stations);
+
+        assertThat(response).hasSize(stations.size()).allMatch(result -> result.status() == 201);
+        verify(mockEntityManager, times(2)).flush();
+        verify(mockEntityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("createStations - Too large batch is rejected")
+    void shouldRejectTooLargeBatch() {
+        var stations = new ArrayList<Station>();
+        for (int i = 0; i <= StationServiceImpl.MAX_BATCH_SIZE; i++) {
+            stations.add(Station.builder().stationName(STATION_NAME).build());
+        }
+
+        assertThatThrownBy(() -> impl.createStations(stations)).isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("updateStations - Updated, conflicting, missing and invalid items reported")
+    void shouldUpdateBatchOfStations() {
+        var updated = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+        var stations = new ArrayList<Station>();
+        stations.add(Station.builder().stationName(STATION_NAME).id(1L).version(0).build());
+        stations.add(Station.builder().stationName(STATION_NAME).id(2L).version(3).build());
+        stations.add(Station.builder().stationName(STATION_NAME).id(3L).version(0).build());
+        stations.add(Station.builder().stationName(STATION_NAME).id(4L).build());
+        stations.add(Station.builder().stationName(STATION_NAME).id(1L).version(0).build());
+        stations.add(null);
+
+        when(mockRepository.updateAll(stations.subList(0, 3))).thenReturn(List.of(updated));
+        when(mockRepository.findExistingIds(Set.of(2L, 3L))).thenReturn(List.of(2L));
+
+        var response = impl.updateStations(stations);
+
+        assertThat(response).containsExactly(
+                new BatchItemResult(0, 200, updated, null),
+                new BatchItemResult(1, 409, null, "Version mismatch"),
+                new BatchItemResult(2, 404, null, "Station not found"),
+                new BatchItemResult(3, 400, null, "id and version are required"),
+                new BatchItemResult(4, 400, null, "The station is updated by an earlier item of the batch"),
+                new BatchItemResult(5, 400, null, "stationName is missing"));
+        verify(mockChangeLog).append(List.of(StationChange.written(updated)));
+        verify(mockEventPublisher).publishEvent(StationChangedEvent.updated(updated));
+        verifyNoMoreInteractions(mockEventPublisher);
+    }
+
+    @Test
+    @DisplayName("updateStations - No existence check when every station is updated")
+    void shouldUpdateBatchWithoutExistenceCheck() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        var updated = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+
+        when(mockRepository.updateAll(List.of(station))).thenReturn(List.of(updated));
+
+        var response = impl.updateStations(List.of(station));
+
+        assertThat(response).containsExactly(new BatchItemResult(0, 200, updated, null));
+        verify(mockRepository).updateAll(List.of(station));
+        verifyNoMoreInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("deleteStations - Deleted and missing ids reported")
+    void shouldDeleteBatchOfStations() {
+        when(mockRepository.deleteByIds(new LinkedHashSet<>(List.of(1L, 2L)))).thenReturn(List.of(1L));
+
+        var response = impl.deleteStations(List.of(1L, 2L, 1L));
+
+        assertThat(response).containsExactly(
+                new BatchItemResult(0, 204, Station.builder().id(1L).build(), null),
+                new BatchItemResult(1, 404, Station.builder().id(2L).build(), "Station not found"),
+                new BatchItemResult(2, 204, Station.builder().id(1L).build(), null));
+        verify(mockChangeLog).append(List.of(StationChange.deleted(1L)));
+        verify(mockEventPublisher).publishEvent(StationChangedEvent.deleted(1L));
+        verifyNoMoreInteractions(mockEventPublisher);
+    }
+
+    @Test
+    @DisplayName("deleteStations - Too many ids are rejected")
+    void shouldRejectTooManyIds() {
+        var ids = new ArrayList<Long>();
+        for (long i = 0; i <= StationServiceImpl.MAX_BATCH_SIZE; i++) {
+            ids.add(i);
+        }
+
+        assertThatThrownBy(() -> impl.deleteStations(ids)).isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("findListVersion - The list version is the counter of the change log, not derived from the stations")
+    void shouldReturnListVersionFromChangeCounter() {
+        when(mockChangeLog.lastReserved()).thenReturn(42L);
+
+        assertThat(impl.findListVersion()).isEqualTo(new StationListVersion(42L));
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("findChanges - Changes after the watermark are read from the log")
+    void shouldReturnChangesSinceWatermark() {
+        var changes = List.of(new StationChange(6L, 1L, STATION_NAME, 1, false), new StationChange(7L, 2L, null, null, true));
+        when(mockChangeLog.findSince(5L, StationServiceImpl.DEFAULT_CHANGES_LIMIT)).thenReturn(changes);
+
+        assertThat(impl.findChanges(5L, null)).isEqualTo(changes);
+    }
+
+    @Test
+    @DisplayName("findChanges - Negative watermark and invalid limit are rejected")
+    void shouldRejectInvalidChangesRequest() {
+        assertThatThrownBy(() -> impl.findChanges(-1L, null)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> impl.findChanges(0L, 0)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> impl.findChanges(0L, StationServiceImpl.MAX_CHANGES_LIMIT + 1))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(mockChangeLog);
     }
 
     @Test
     @DisplayName("findAllStations - Getting all stations")
     void shouldReturnAllStations() {
         var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
-        var stationEntity = new StationEntity(1L, STATION_NAME, 0);
 
-        when(mockRepository.findAll(any(Sort.class))).thenReturn(List.of(stationEntity, stationEntity, stationEntity));
-        when(mockMapper.toDto(stationEntity)).thenReturn(station);
+        when(mockRepository.findAllStations(Sort.by(Sort.Direction.ASC, "id"))).thenReturn(List.of(station, station, station));
 
-        var response = impl.findAllStations(null, null);
+        var response = impl.findAllStations(null);
         assertThat(response).isNotNull().hasSize(3);
+        verifyNoInteractions(mockMapper);
+    }
+
+    @Test
+    @DisplayName("findStationList - The list version is read before the stations")
+    void shouldReturnStationsWithListVersion() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        when(mockChangeLog.lastReserved()).thenReturn(42L);
+        when(mockRepository.findAllStations(Sort.by(Sort.Direction.ASC, "id"))).thenReturn(List.of(station));
+
+        assertThat(impl.findStationList(null)).isEqualTo(new StationList(new StationListVersion(42L), List.of(station)));
+
+        var order = inOrder(mockChangeLog, mockRepository);
+        order.verify(mockChangeLog).lastReserved();
+        order.verify(mockRepository).findAllStations(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    @Test
+    @DisplayName("exportStations - Every station is handed over")
+    void shouldExportAllStations() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        var exported = new ArrayList<Station>();
+
+        when(mockRepository.streamAll(Sort.by(Sort.Direction.DESC, "name"))).thenReturn(Stream.of(station, station));
+
+        impl.exportStations(Sort.by(Sort.Direction.DESC, "name"), exported::add);
+
+        assertThat(exported).containsExactly(station, station);
+        verifyNoInteractions(mockMapper, mockEntityManager);
+    }
+
+    @Test
+    @DisplayName("findStationsPage - First page has a cursor when there are more stations")
+    void shouldReturnFirstPageWithNextCursor() {
+        var first = new Station(1L, "Capital FM", 0);
+        var second = new Station(2L, "Heart UK", 0);
+        var third = new Station(3L, "Kiss", 0);
+
+        when(mockRepository.findFirstPage(PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "name", "id"))))
+                .thenReturn(List.of(first, second, third));
+
+        var response = impl.findStationsPage(Fields.NAME, null, 2, null);
+
+        assertThat(response.stations()).extracting(Station::id).containsExactly(1L, 2L);
+        assertThat(StationCursor.decode(response.nextCursor()))
+                .isEqualTo(new StationCursor(Fields.NAME, Sort.Direction.ASC, 2L, "Heart UK"));
+    }
+
+    @Test
+    @DisplayName("findStationsPage - Cursor is turned into a seek predicate, last page has no cursor")
+    void shouldSeekFromCursor() {
+        var cursor = new StationCursor(Fields.NAME, Sort.Direction.DESC, 2L, "Heart UK").encode();
+        var last = new Station(1L, "Capital FM", 0);
+
+        when(mockRepository.findPageBeforeName(eq("Heart UK"), eq(2L), any(Pageable.class))).thenReturn(List.of(last));
+
+        var response = impl.findStationsPage(null, null, 2, cursor);
+
+        assertThat(response.stations()).extracting(Station::id).containsExactly(1L);
+        assertThat(response.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("findStationsPage - Seeking by id")
+    void shouldSeekById() {
+        var cursor = new StationCursor(Fields.ID, Sort.Direction.ASC, 5L, null).encode();
+
+        when(mockRepository.findPageAfterId(eq(5L), any(Pageable.class))).thenReturn(List.of());
+
+        var response = impl.findStationsPage(Fields.ID, Sort.Direction.ASC, null, cursor);
+
+        assertThat(response.stations()).isEmpty();
+        verify(mockRepository).findPageAfterId(5L, PageRequest.of(0, StationServiceImpl.DEFAULT_PAGE_SIZE + 1,
+                Sort.by(Sort.Direction.ASC, "id")));
+    }
+
+    @Test
+    @DisplayName("findStationsPage - Invalid limit or cursor is a bad request")
+    void shouldRejectInvalidPageRequest() {
+        var nameCursor = new StationCursor(Fields.NAME, Sort.Direction.ASC, 2L, "Heart UK").encode();
+
+        assertThatThrownBy(() -> impl.findStationsPage(null, null, 0, null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("statusCode", HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> impl.findStationsPage(null, null, StationServiceImpl.MAX_PAGE_SIZE + 1, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> impl.findStationsPage(null, null, 10, "not a cursor"))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> impl.findStationsPage(Fields.ID, null, 10, nameCursor))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoMoreInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("searchStations - Query is trimmed and lower cased")
+    void shouldSearchStations() {
+        var station = new Station(1L, "Heart UK", 0);
+
+        when(mockRepository.searchByName("heart", StationServiceImpl.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of(station));
+
+        assertThat(impl.searchStations(" Heart ", null)).containsExactly(station);
+    }
+
+    @Test
+    @DisplayName("searchStations - Blank query or invalid limit is a bad request")
+    void shouldRejectInvalidSearch() {
+        assertThatThrownBy(() -> impl.searchStations(" ", null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("statusCode", HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> impl.searchStations("heart", StationServiceImpl.MAX_SEARCH_LIMIT + 1))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("autocompleteStations - Served by the name index when it is enabled")
+    void shouldAutocompleteFromTheIndex() {
+        var station = new Station(1L, "Heart UK", 0);
+
+        when(mockNameIndexProvider.getIfAvailable()).thenReturn(mockNameIndex);
+        when(mockNameIndex.isBuilt()).thenReturn(true);
+        when(mockNameIndex.autocomplete("Hea", 5)).thenReturn(List.of(station));
+
+        assertThat(impl.autocompleteStations("Hea", 5)).containsExactly(station);
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("autocompleteStations - Served by the database search until the name index is built")
+    void shouldAutocompleteFromTheDatabaseWhileIndexIsBuilt() {
+        var station = new Station(1L, "Heart UK", 0);
+
+        when(mockNameIndexProvider.getIfAvailable()).thenReturn(mockNameIndex);
+        when(mockNameIndex.isBuilt()).thenReturn(false);
+        when(mockRepository.searchByName("hea", 5)).thenReturn(List.of(station));
+
+        assertThat(impl.autocompleteStations("Hea", 5)).containsExactly(station);
+        verify(mockNameIndex, never()).autocomplete("Hea", 5);
+    }
+
+    @Test
+    @DisplayName("autocompleteStations - Served by the database search without the name index")
+    void shouldAutocompleteFromTheDatabase() {
+        var station = new Station(1L, "Heart UK", 0);
+
+        when(mockRepository.searchByName("hea", StationServiceImpl.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of(station));
+
+        assertThat(impl.autocompleteStations("Hea", null)).containsExactly(station);
     }
 
     @Test
     @DisplayName("findById - The station was found")
     void shouldReturnStation() {
         var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
-        var stationEntity = new StationEntity(1L, STATION_NAME, 0);
 
-        when(mockRepository.findById(1L)).thenReturn(Optional.of(stationEntity));
-        when(mockMapper.toDto(stationEntity)).thenReturn(station);
+        when(mockRepository.findStationById(1L)).thenReturn(Optional.of(station));
+
+        var response = impl.findById(1L);
+        assertThat(response).isNotNull().isEqualTo(station);
+        verify(mockCache).put(station);
+    }
+
+    @Test
+    @DisplayName("findById - The station was served from the cache")
+    void shouldReturnCachedStation() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(mockCache.get(1L)).thenReturn(station);
 
         var response = impl.findById(1L);
         assertThat(response).isNotNull().isEqualTo(station);
+        verifyNoInteractions(mockRepository, mockMapper);
+    }
+
+    @Test
+    @DisplayName("findVersionById - Version of a cached station is taken from the cache")
+    void shouldReturnCachedVersion() {
+        when(mockCache.get(1L)).thenReturn(Station.builder().stationName(STATION_NAME).id(1L).version(4).build());
+
+        assertThat(impl.findVersionById(1L)).isEqualTo(4);
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("findVersionById - Version is read from the database")
+    void shouldReturnVersion() {
+        when(mockRepository.findVersionById(1L)).thenReturn(Optional.of(2));
+        when(mockRepository.findVersionById(2L)).thenReturn(Optional.empty());
+
+        assertThat(impl.findVersionById(1L)).isEqualTo(2);
+        assertThat(impl.findVersionById(2L)).isNull();
     }
 
     @Test
@@ -116,12 +526,87 @@ class StationServiceImplTest {
 
         var response = impl.updateStation(station);
         assertThat(response).isNotNull().isEqualTo(responseStation);
+        verify(mockEventPublisher).publishEvent(StationChangedEvent.updated(responseStation));
+    }
+
+    @Test
+    @DisplayName("updateStation - Station with version updated by one statement")
+    void shouldUpdateStationWithSingleStatement() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        var responseStation = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+
+        when(mockRepository.updateStation(1L, STATION_NAME, 0)).thenReturn(1);
+
+        var response = impl.updateStation(station);
+        assertThat(response).isEqualTo(responseStation);
+        verify(mockRepository).updateStation(1L, STATION_NAME, 0);
+        verifyNoMoreInteractions(mockRepository);
+        verifyNoInteractions(mockMapper);
+        verify(mockChangeLog).append(List.of(StationChange.written(responseStation)));
+        verify(mockEventPublisher).publishEvent(StationChangedEvent.updated(responseStation));
+    }
+
+    @Test
+    @DisplayName("updateStation - Conflict when the station has another version")
+    void shouldRejectUpdateWithOutdatedVersion() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(mockRepository.updateStation(1L, STATION_NAME, 0)).thenReturn(0);
+        when(mockRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> impl.updateStation(station))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verifyNoInteractions(mockEventPublisher, mockChangeLog);
+    }
+
+    @Test
+    @DisplayName("updateStation - Not found when there is no station with the identifier")
+    void shouldRejectUpdateOfMissingStation() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+
+        when(mockRepository.updateStation(1L, STATION_NAME, 0)).thenReturn(0);
+        when(mockRepository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> impl.updateStation(station))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verifyNoInteractions(mockEventPublisher);
+    }
+
+    @Test
+    @DisplayName("updateStation - Station with version handed to the coalescer when write coalescing is enabled")
+    void shouldCoalesceUpdate() {
+        var station = Station.builder().stationName(STATION_NAME).id(1L).version(0).build();
+        var responseStation = Station.builder().stationName(STATION_NAME).id(1L).version(1).build();
+
+        when(mockUpdateCoalescer.isEnabled()).thenReturn(true);
+        when(mockUpdateCoalescer.update(station)).thenReturn(responseStation);
+
+        assertThat(impl.updateStation(station)).isEqualTo(responseStation);
+        verifyNoInteractions(mockRepository, mockChangeLog, mockEventPublisher, mockTransactionTemplate);
     }
 
     @Test
     @DisplayName("deleteStation - Station deleted.")
     void shouldDeleteStation() {
+        when(mockRepository.deleteStationById(1L)).thenReturn(1);
+
         impl.deleteStation(1L);
-        verify(mockRepository).deleteById(1L);
+        verify(mockRepository).deleteStationById(1L);
+        verifyNoMoreInteractions(mockRepository);
+        verify(mockChangeLog).append(List.of(StationChange.deleted(1L)));
+        verify(mockEventPublisher).publishEvent(StationChangedEvent.deleted(1L));
+    }
+
+    @Test
+    @DisplayName("deleteStation - Not found when there is no station with the identifier")
+    void shouldRejectDeleteOfMissingStation() {
+        when(mockRepository.deleteStationById(1L)).thenReturn(0);
+
+        assertThatThrownBy(() -> impl.deleteStation(1L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verifyNoInteractions(mockEventPublisher);
     }
 }
@@ -0,0 +1,148 @@
+package com.global.aod.interview.techtest.service.impl;
+
+import com.global.aod.interview.techtest.configuration.WriteCoalescingProperties;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.model.event.StationChangedEvent;
+import com.global.aod.interview.techtest.repository.StationChangeLog;
+import com.global.aod.interview.techtest.repository.StationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StationUpdateCoalescerTest {
+
+    @Mock
+    private StationRepository mockRepository;
+
+    @Mock
+    private StationChangeLog mockChangeLog;
+
+    @Mock
+    private ApplicationEventPublisher mockEventPublisher;
+
+    @Mock
+    private TransactionTemplate mockTransactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StationUpdateCoalescer coalescer;
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(mockTransactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        meterRegistry = new SimpleMeterRegistry();
+        var properties = new WriteCoalescingProperties(true, Duration.ofMillis(20), Duration.ofSeconds(5));
+        coalescer = new StationUpdateCoalescer(mockRepository, mockChangeLog, mockEventPublisher, mockTransactionTemplate,
+                properties, meterRegistry, mock(ScheduledExecutorService.class));
+    }
+
+    @Test
+    @DisplayName("flush - Only the last update based on the same version is written, the earlier ones conflict")
+    void shouldWriteLastUpdateOfWindow() {
+        var written = new Station(1L, "Heart London", 4);
+        when(mockRepository.updateAll(List.of(new Station(1L, "Heart London", 3)))).thenReturn(List.of(written));
+
+        var first = updateAsync(new Station(1L, "Heart UK", 3), 1);
+        var last = updateAsync(new Station(1L, "Heart London", 3), 2);
+        coalescer.flush();
+
+        assertThat(first).failsWithin(Duration.ofSeconds(1)).withThrowableThat()
+                .havingRootCause().isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(last).succeedsWithin(Duration.ofSeconds(1)).isEqualTo(written);
+        verify(mockChangeLog).append(List.of(StationChange.written(written)));
+        verify(mockEventPublisher).publishEvent(StationChangedEvent.updated(written));
+        assertThat(meterRegistry.get("stations.write-coalescing.ratio").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("flush - Stale versions conflict, missing stations are not found")
+    void shouldRejectStaleAndMissingStations() {
+        var stale = new Station(1L, "Heart UK", 3);
+        var missing = new Station(2L, "Capital", 0);
+        // The order of the stations in the statement doesn't matter
+        when(mockRepository.updateAll(any())).thenReturn(List.of());
+        when(mockRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+
+        var staleResult = updateAsync(stale, 1);
+        var missingResult = updateAsync(missing, 2);
+        coalescer.flush();
+
+        assertThat(staleResult).failsWithin(Duration.ofSeconds(1)).withThrowableThat()
+                .havingRootCause().isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(missingResult).failsWithin(Duration.ofSeconds(1)).withThrowableThat()
+                .havingRootCause().isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verifyNoInteractions(mockEventPublisher);
+    }
+
+    @Test
+    @DisplayName("flush - Updates of a station based on different versions are written one round each")
+    void shouldWriteDifferentVersionsInRounds() {
+        var stale = new Station(1L, "Heart UK", 2);
+        var current = new Station(1L, "Heart London", 3);
+        var written = new Station(1L, "Heart London", 4);
+        // Not called when the current version happens to go first
+        lenient().when(mockRepository.updateAll(List.of(stale))).thenReturn(List.of());
+        when(mockRepository.updateAll(List.of(current))).thenReturn(List.of(written));
+
+        var staleResult = updateAsync(stale, 1);
+        var currentResult = updateAsync(current, 2);
+        coalescer.flush();
+
+        assertThat(currentResult).succeedsWithin(Duration.ofSeconds(1)).isEqualTo(written);
+        assertThat(staleResult).failsWithin(Duration.ofSeconds(1)).withThrowableThat()
+                .havingRootCause().isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    @DisplayName("shutdown - Queued updates are written, new ones are refused")
+    void shouldWriteQueuedUpdatesOnShutdown() throws InterruptedException {
+        var written = new Station(1L, "Heart UK", 1);
+        when(mockRepository.updateAll(List.of(new Station(1L, "Heart UK", 0)))).thenReturn(List.of(written));
+
+        var result = updateAsync(new Station(1L, "Heart UK", 0), 1);
+        coalescer.shutdown();
+
+        assertThat(result).succeedsWithin(Duration.ofSeconds(1)).isEqualTo(written);
+        assertThat(updateAsync(new Station(1L, "Heart UK", 1), 1)).failsWithin(Duration.ofSeconds(1));
+    }
+
+    /**
+     * Sends the update from another thread, the caller is blocked until its update is written.
+     */
+    private CompletableFuture<Station> updateAsync(Station station, int received) {
+        var result = CompletableFuture.supplyAsync(() -> coalescer.update(station));
+        await().atMost(Duration.ofSeconds(1)).until(() -> result.isDone()
+                || meterRegistry.get("stations.write-coalescing.requests").counter().count() == received);
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package com.global.aod.interview.techtest.sql;
+
+import com.global.aod.interview.techtest.cache.StationCache;
+import com.global.aod.interview.techtest.cache.StationListResponseCache;
+import com.global.aod.interview.techtest.contoller.StationsController;
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.model.event.StationInvalidatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.regex.Pattern;
+
+import static com.global.aod.interview.techtest.utils.JsonUtils.asJsonString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of statements every endpoint sends to the database, as reported by the {@code Server-Timing} header.
+ * When a number changes, it's either an improvement or an extra query slipping in, like a select before a write.
+ * Every write sends 3 statements to the change log on top of its own.
+ */
+@SpringBootTest(properties = {"stations.sql.enabled=true", "stations.sql.server-timing=true"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(statements = "INSERT INTO station (id, name, version) VALUES (1, 'Heart UK', 0)",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class EndpointStatementCountTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("desc=\"(\\d+) statements");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StationCache stationCache;
+
+    @Autowired
+    private StationListResponseCache listResponses;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        // The station was inserted behind the back of the caches
+        stationCache.onStationInvalidated(StationInvalidatedEvent.all());
+        listResponses.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("GET /stations/{id} - One select, none once the station is cached")
+    void shouldFindStationWithOneStatement() throws Exception {
+        assertThat(statementsOf(MockMvcRequestBuilders.get("/stations/1"))).isEqualTo(1);
+        assertThat(statementsOf(MockMvcRequestBuilders.get("/stations/1"))).isZero();
+    }
+
+    @Test
+    @DisplayName("GET /stations - List version, then list and its version together, only the version once the response is cached")
+    void shouldFindAllStationsWithThreeStatements() throws Exception {
+        assertThat(statementsOf(MockMvcRequestBuilders.get("/stations"))).isEqualTo(3);
+        assertThat(statementsOf(MockMvcRequestBuilders.get("/stations"))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("PUT /stations - One update without selecting the station first")
+    void shouldUpdateStationWithoutSelect() throws Exception {
+        var station = Station.builder().id(1L).stationName("Capital FM").version(0).build();
+
+        assertThat(statementsOf(MockMvcRequestBuilders.put("/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(station)))).isEqualTo(1 + 3);
+    }
+
+    @Test
+    @DisplayName("POST /stations - A retry with the same Idempotency-Key sends no statement")
+    void shouldReplayCreateWithoutStatement() throws Exception {
+        var station = Station.builder().stationName("Capital FM").build();
+
+        assertThat(statementsOf(MockMvcRequestBuilders.post("/stations")
+                .header(StationsController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(station)))).isPositive();
+        assertThat(statementsOf(MockMvcRequestBuilders.post("/stations")
+                .header(StationsController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(station)))).isZero();
+    }
+
+    @Test
+    @DisplayName("DELETE /stations/{id} - One delete without finding the station first")
+    void shouldDeleteStationWithoutFind() throws Exception {
+        assertThat(statementsOf(MockMvcRequestBuilders.delete("/stations/1"))).isEqualTo(1 + 3);
+    }
+
+    @Test
+    @DisplayName("GET /stations/export - The select streamed by the async thread is recorded once the export completed")
+    void shouldCountStatementsOfExport() throws Exception {
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/stations/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        var statements = meterRegistry.get("stations.request.statements")
+                .tags("method", "GET", "uri", "/stations/export").summary();
+        var rows = meterRegistry.get("stations.request.rows")
+                .tags("method", "GET", "uri", "/stations/export").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(1);
+        assertThat(rows.totalAmount()).isEqualTo(1);
+        // The headers went out before the select, a header would tell nothing
+        assertThat(result.getResponse().getHeader(StatementStatisticsFilter.SERVER_TIMING_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("GET /stations/changes - One select of the change log")
+    void shouldFindChangesWithOneStatement() throws Exception {
+        assertThat(statementsOf(MockMvcRequestBuilders.get("/stations/changes?since=0"))).isEqualTo(1);
+    }
+
+    private int statementsOf(RequestBuilder request) throws Exception {
+        var serverTiming = mockMvc.perform(request).andReturn().getResponse()
+                .getHeader(StatementStatisticsFilter.SERVER_TIMING_HEADER);
+        assertThat(serverTiming).isNotNull();
+
+        var matcher = STATEMENTS.matcher(serverTiming);
+        assertThat(matcher.find()).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+}
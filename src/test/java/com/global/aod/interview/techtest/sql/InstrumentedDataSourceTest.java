@@ -0,0 +1,112 @@
+package com.global.aod.interview.techtest.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+class InstrumentedDataSourceTest {
+
+    private static final String SELECT_BY_ID = "SELECT name FROM instrumented WHERE id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        var h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new InstrumentedDataSource(h2, Duration.ofSeconds(1)));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS instrumented (id INT PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.execute("DELETE FROM instrumented");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        StatementStatistics.end();
+    }
+
+    @Test
+    @DisplayName("getConnection - Statements, written rows and read rows of the request are collected")
+    void shouldCollectStatementsAndRows() {
+        var statistics = StatementStatistics.begin();
+
+        jdbcTemplate.batchUpdate("INSERT INTO instrumented (id, name) VALUES (?, ?)",
+                List.of(new Object[]{1, "Heart UK"}, new Object[]{2, "Capital FM"}, new Object[]{3, "Kiss"}));
+        var names = jdbcTemplate.queryForList("SELECT name FROM instrumented", String.class);
+
+        assertThat(names).hasSize(3);
+        assertThat(statistics.statements()).isEqualTo(2);
+        assertThat(statistics.rows()).isEqualTo(6);
+        assertThat(statistics.serverTiming()).startsWith("db;dur=").endsWith(";desc=\"2 statements, 6 rows\"");
+    }
+
+    @Test
+    @DisplayName("getConnection - The same statement in a loop is reported as repeated")
+    void shouldReportRepeatedStatements() {
+        jdbcTemplate.update("INSERT INTO instrumented (id, name) VALUES (1, 'Heart UK')");
+        var statistics = StatementStatistics.begin();
+
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.queryForList(SELECT_BY_ID, String.class, 1);
+        }
+
+        assertThat(statistics.repeated(3)).isEqualTo(Map.of(SELECT_BY_ID, 3));
+        assertThat(statistics.repeated(4)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("close - The wrapped pool is closed with the application")
+    void shouldCloseWrappedPool() throws Exception {
+        var pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new InstrumentedDataSource(pool, Duration.ofSeconds(1)).close();
+
+        verify((AutoCloseable) pool).close();
+    }
+
+    @Test
+    @DisplayName("getConnection - Statements outside of a request are not collected")
+    void shouldIgnoreStatementsOutsideOfRequests() {
+        jdbcTemplate.queryForList("SELECT name FROM instrumented", String.class);
+
+        assertThat(StatementStatistics.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("execute - Time spent in an overridden execute is measured with the statement")
+    void shouldMeasureOverriddenExecute() {
+        var h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+        var executed = new AtomicInteger();
+        var slowJdbcTemplate = new JdbcTemplate(new InstrumentedDataSource(h2, Duration.ofSeconds(1)) {
+            @Override
+            protected Object execute(Statement statement, Method method, Object[] args) throws Throwable {
+                executed.incrementAndGet();
+                Thread.sleep(10);
+                return super.execute(statement, method, args);
+            }
+        });
+        var statistics = StatementStatistics.begin();
+
+        slowJdbcTemplate.queryForList("SELECT name FROM instrumented", String.class);
+
+        assertThat(executed).hasValue(1);
+        assertThat(statistics.statements()).isEqualTo(1);
+        assertThat(statistics.serverTiming()).doesNotStartWith("db;dur=0");
+    }
+}
@@ -0,0 +1,88 @@
+package com.global.aod.interview.techtest.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    // Every database knows its own name
+    private static final String SELECT_NODE = "SELECT name FROM node";
+
+    @Test
+    @DisplayName("getConnection - Read-only transactions are sent to the replica")
+    void shouldSendReadOnlyTransactionsToReplica() {
+        var jdbc = jdbc(Map.of("replica", database("replica")));
+
+        assertThat(readOnly(jdbc)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("getConnection - Read-write transactions and statements without a transaction are sent to the primary")
+    void shouldSendEverythingElseToPrimary() {
+        var jdbc = jdbc(Map.of("replica", database("replica")));
+
+        assertThat(jdbc.transactionTemplate().execute(status -> jdbc.jdbcTemplate().queryForObject(SELECT_NODE, String.class)))
+                .isEqualTo("primary");
+        assertThat(jdbc.jdbcTemplate().queryForObject(SELECT_NODE, String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("getConnection - The replicas take turns")
+    void shouldTakeTurns() {
+        var replicas = new LinkedHashMap<String, DataSource>();
+        replicas.put("replica-1", database("replica-1"));
+        replicas.put("replica-2", database("replica-2"));
+        var jdbc = jdbc(replicas);
+
+        assertThat(new String[]{readOnly(jdbc), readOnly(jdbc), readOnly(jdbc), readOnly(jdbc)})
+                .containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+    }
+
+    @Test
+    @DisplayName("getConnection - Reads fall back to the primary when the replica has no connection")
+    void shouldFallBackToPrimary() throws SQLException {
+        var unavailable = mock(DataSource.class);
+        when(unavailable.getConnection()).thenThrow(new SQLException("Connection is not available"));
+        var jdbc = jdbc(Map.of("replica", unavailable));
+
+        assertThat(readOnly(jdbc)).isEqualTo("primary");
+    }
+
+    private record Jdbc(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+    }
+
+    private static Jdbc jdbc(Map<String, DataSource> replicas) {
+        var dataSource = new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(database("primary"), replicas));
+        return new Jdbc(new JdbcTemplate(dataSource), new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    private static String readOnly(Jdbc jdbc) {
+        var transactionTemplate = new TransactionTemplate(jdbc.transactionTemplate().getTransactionManager());
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> jdbc.jdbcTemplate().queryForObject(SELECT_NODE, String.class));
+    }
+
+    private static DataSource database(String name) {
+        var h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        var jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(50))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return h2;
+    }
+}
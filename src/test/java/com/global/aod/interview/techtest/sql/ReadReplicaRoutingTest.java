@@ -0,0 +1,67 @@
+package com.global.aod.interview.techtest.sql;
+
+import com.global.aod.interview.techtest.model.Station;
+import com.global.aod.interview.techtest.service.StationService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The replica is a second H2 database, with a station of its own, so it's visible where a read was answered from.
+ */
+@SpringBootTest(properties = {
+        "stations.read-replicas.enabled=true",
+        "stations.read-replicas.replicas.local.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "stations.read-replicas.replicas.local.hikari.maximum-pool-size=2"
+})
+@ActiveProfiles("test")
+@Sql(scripts = "/db/reset-database.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(statements = "INSERT INTO station (id, name, version) VALUES (1, 'Heart UK', 0)",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;"
+            + "INIT=CREATE TABLE IF NOT EXISTS station (id BIGINT PRIMARY KEY, name TEXT NOT NULL, version INTEGER NOT NULL)";
+
+    @Autowired
+    private StationService stationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        var replica = new JdbcDataSource();
+        replica.setURL(REPLICA_URL);
+        var replicaJdbcTemplate = new JdbcTemplate(replica);
+        replicaJdbcTemplate.update("DELETE FROM station");
+        replicaJdbcTemplate.update("INSERT INTO station (id, name, version) VALUES (1, 'Heart UK replica', 0)");
+    }
+
+    @Test
+    @DisplayName("findAllStations - Read-only transactions of the service are answered by the replica")
+    void shouldReadFromReplica() {
+        assertThat(stationService.findAllStations(Sort.by("id")))
+                .containsExactly(new Station(1L, "Heart UK replica", 0));
+    }
+
+    @Test
+    @DisplayName("updateStation - Writes go to the primary")
+    void shouldWriteToPrimary() {
+        stationService.updateStation(new Station(1L, "Capital FM", 0));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM station WHERE id = 1", String.class))
+                .isEqualTo("Capital FM");
+        assertThat(stationService.findAllStations(Sort.by("id")))
+                .containsExactly(new Station(1L, "Heart UK replica", 0));
+    }
+}
@@ -0,0 +1,173 @@
+package com.global.aod.interview.techtest.stream;
+
+import com.global.aod.interview.techtest.configuration.StationStreamProperties;
+import com.global.aod.interview.techtest.model.StationChange;
+import com.global.aod.interview.techtest.repository.StationChangeLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.global.aod.interview.techtest.stream.StationChangeBroadcaster.PAGE_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StationChangeBroadcasterTest {
+
+    private static final StationChange CHANGE_4 = new StationChange(4L, 1L, "Heart UK", 0, false);
+    private static final StationChange CHANGE_5 = new StationChange(5L, 1L, "Heart London", 1, false);
+    private static final StationChange CHANGE_6 = new StationChange(6L, 1L, null, null, true);
+
+    @Mock
+    private StationChangeLog mockChangeLog;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ManualExecutorService senders;
+    private StationChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        senders = new ManualExecutorService();
+        var properties = new StationStreamProperties(2, 1, 2, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofSeconds(15));
+        broadcaster = new StationChangeBroadcaster(mockChangeLog, properties, meterRegistry,
+                mock(ScheduledExecutorService.class), senders);
+    }
+
+    @Test
+    @DisplayName("subscribe - Missed changes are sent from the log, then the live ones, each of them once")
+    void shouldResumeFromLastEventId() {
+        when(mockChangeLog.findSince(3L, PAGE_SIZE)).thenReturn(List.of(CHANGE_4, CHANGE_5));
+        when(mockChangeLog.findSince(0L, PAGE_SIZE)).thenReturn(List.of(CHANGE_5, CHANGE_6));
+        var emitter = new RecordingEmitter();
+
+        broadcaster.subscribe(3L, emitter);
+        broadcaster.poll();
+        senders.runAll();
+
+        assertThat(emitter.changes).containsExactly(CHANGE_4, CHANGE_5, CHANGE_6);
+    }
+
+    @Test
+    @DisplayName("poll - Subscriber with a full buffer is disconnected without waiting for it")
+    void shouldDisconnectSlowSubscriber() {
+        when(mockChangeLog.findSince(0L, PAGE_SIZE))
+                .thenReturn(List.of(CHANGE_4, CHANGE_5, CHANGE_6))
+                .thenReturn(List.of());
+        var emitter = new RecordingEmitter();
+
+        broadcaster.subscribe(null, emitter);
+        broadcaster.poll();
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+        assertThat(meterRegistry.get("stations.stream.disconnects").counter().count()).isEqualTo(1);
+
+        senders.runAll();
+        assertThat(emitter.completed).isTrue();
+        assertThat(emitter.changes).isEmpty();
+    }
+
+    @Test
+    @DisplayName("subscribe - Subscribers over the limit are refused")
+    void shouldRefuseTooManySubscribers() {
+        broadcaster.subscribe(null, new RecordingEmitter());
+        broadcaster.subscribe(null, new RecordingEmitter());
+
+        assertThatThrownBy(() -> broadcaster.subscribe(null, new RecordingEmitter()))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(meterRegistry.get("stations.stream.subscribers").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("poll - Without subscribers only the position of the log is followed")
+    void shouldFollowLogWithoutSubscribers() {
+        when(mockChangeLog.lastSeq()).thenReturn(5L);
+        when(mockChangeLog.findSince(5L, PAGE_SIZE)).thenReturn(List.of(CHANGE_6));
+        var emitter = new RecordingEmitter();
+
+        broadcaster.poll();
+        broadcaster.subscribe(null, emitter);
+        senders.runAll();
+
+        assertThat(emitter.changes).containsExactly(CHANGE_6);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<StationChange> changes = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(StationChange.class::isInstance)
+                    .map(StationChange.class::cast)
+                    .forEach(changes::add);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    /**
+     * Keeps the submitted tasks until the test runs them, so it decides when the subscribers are sent to.
+     */
+    private static class ManualExecutorService extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -3,4 +3,10 @@ DELETE FROM station;
 
 DROP SEQUENCE IF EXISTS station_entity_seq;
 
-CREATE SEQUENCE IF NOT EXISTS station_entity_seq;
\ No newline at end of file
+CREATE SEQUENCE IF NOT EXISTS station_entity_seq INCREMENT BY 50;
+
+DELETE FROM station_change;
+
+UPDATE station_change_counter SET seq = 0;
+
+DELETE FROM station_idempotency_key;